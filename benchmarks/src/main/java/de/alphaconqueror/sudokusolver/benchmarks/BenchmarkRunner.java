@@ -0,0 +1,42 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the benchmarks with the allocation profiler enabled, writing the results as JSON
+ * to "target/jmh-result.json" for comparison between runs. Accepts all JMH command line options,
+ * e.g. a regular expression selecting the benchmarks or "-p puzzle=HARD_9X9".
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        String directory = new File(System.getProperty(Puzzle.DIRECTORY_PROPERTY, "../sudokus")).getAbsolutePath();
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .jvmArgsAppend("-D" + Puzzle.DIRECTORY_PROPERTY + "=" + directory);
+
+        if(!commandLineOptions.getResultFormat().hasValue())
+            options.resultFormat(ResultFormatType.JSON).result("target/jmh-result.json");
+
+        if(commandLineOptions.getProfilers().isEmpty())
+            options.addProfiler(GCProfiler.class);
+
+        new Runner(options.build()).run();
+    }
+}
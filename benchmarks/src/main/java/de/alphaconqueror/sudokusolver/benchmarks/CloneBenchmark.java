@@ -0,0 +1,47 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.benchmarks;
+
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures copying the state of a sudoku, which the backtracking search does for every guess.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CloneBenchmark {
+
+    @Param
+    public Puzzle puzzle;
+
+    private Sudoku sudoku;
+    private Grid grid;
+
+    @Setup
+    public void setup() {
+        sudoku = puzzle.readSudoku();
+        grid = Grid.fromSudoku(sudoku);
+    }
+
+    @Benchmark
+    public Sudoku cloneSudoku() {
+        return sudoku.clone();
+    }
+
+    @Benchmark
+    public Grid copyGrid() {
+        return grid.copy();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.benchmarks;
+
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+import de.alphaconqueror.sudokusolver.utils.IOManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading a sudoku from its file, using the {@link java.util.Scanner} based and the memory-mapped parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParsingBenchmark {
+
+    @Param
+    public Puzzle puzzle;
+
+    private String path;
+
+    @Setup
+    public void setup() {
+        path = puzzle.getPath();
+    }
+
+    @Benchmark
+    public Sudoku readSudoku() {
+        return IOManager.readSudoku(path);
+    }
+
+    @Benchmark
+    public Grid readGrid() {
+        return IOManager.readGrid(path);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.benchmarks;
+
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+import de.alphaconqueror.sudokusolver.utils.IOManager;
+
+import java.io.File;
+
+/**
+ * The sudokus of the corpus in the "sudokus" directory, grouped by size and difficulty.
+ * The directory is read from the system property {@value #DIRECTORY_PROPERTY}, defaulting to "../sudokus".
+ */
+public enum Puzzle {
+
+    EASY_9X9("sudoku9x9_1.txt"),
+    NORMAL_9X9("sudoku9x9_2.txt"),
+    HARD_9X9("sudoku9x9_3.txt"),
+    VERY_HARD_9X9("sudoku9x9_4.txt"),
+    VERY_HARD_16X16("sudoku16x16_1.txt");
+
+    /**
+     * The system property containing the directory of the corpus.
+     */
+    public static final String DIRECTORY_PROPERTY = "sudokus.dir";
+
+    /**
+     * The name of the file within the corpus.
+     */
+    private final String fileName;
+
+    Puzzle(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Gets the path to the file of the sudoku.
+     *
+     * @return The path to the file.
+     */
+    public String getPath() {
+        return new File(System.getProperty(DIRECTORY_PROPERTY, "../sudokus"), fileName).getPath();
+    }
+
+    /**
+     * Reads the {@link Sudoku}.
+     *
+     * @return The read sudoku.
+     */
+    public Sudoku readSudoku() {
+        return IOManager.readSudoku(getPath());
+    }
+
+    /**
+     * Reads the sudoku as a {@link Grid}.
+     *
+     * @return The read grid.
+     */
+    public Grid readGrid() {
+        return IOManager.readGrid(getPath());
+    }
+}
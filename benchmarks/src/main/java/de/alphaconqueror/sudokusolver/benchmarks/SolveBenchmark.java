@@ -0,0 +1,91 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.benchmarks;
+
+import de.alphaconqueror.sudokusolver.solver.BitmaskSolver;
+import de.alphaconqueror.sudokusolver.solver.DancingLinksStrategy;
+import de.alphaconqueror.sudokusolver.solver.ParallelStrategy;
+import de.alphaconqueror.sudokusolver.solver.SolveResult;
+import de.alphaconqueror.sudokusolver.solver.SolveStatus;
+import de.alphaconqueror.sudokusolver.solver.SolverStrategy;
+import de.alphaconqueror.sudokusolver.solver.StrategySelector;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+import de.alphaconqueror.sudokusolver.utils.SolverManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full solves of every sudoku with every strategy, as well as the propagation
+ * and the search of the {@link BitmaskSolver} on their own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SolveBenchmark {
+
+    @Param
+    public Puzzle puzzle;
+
+    @Param({"auto", "backtracking", "dlx", "parallel"})
+    public String strategyName;
+
+    private Sudoku sudoku;
+    private Grid grid;
+    private SolverStrategy strategy;
+
+    @Setup
+    public void setup() {
+        sudoku = puzzle.readSudoku();
+        grid = Grid.fromSudoku(sudoku);
+
+        switch(strategyName) {
+            case "auto":
+                strategy = new StrategySelector();
+                break;
+            case "backtracking":
+                strategy = new SolverManager(sudoku);
+                break;
+            case "dlx":
+                strategy = new DancingLinksStrategy();
+                break;
+            case "parallel":
+                strategy = new ParallelStrategy();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown strategy '" + strategyName + "'.");
+        }
+
+        if(!strategy.solve(sudoku).isSolved())
+            throw new IllegalStateException(puzzle + " could not be solved using " + strategyName + ".");
+    }
+
+    @Benchmark
+    public SolveResult solve() {
+        return strategy.solve(sudoku);
+    }
+
+    /**
+     * Propagates the givens without guessing. Independent of the strategy.
+     */
+    @Benchmark
+    public SolveStatus propagate() {
+        return new BitmaskSolver(grid).propagate();
+    }
+
+    /**
+     * Propagates and searches until solved. Independent of the strategy.
+     */
+    @Benchmark
+    public SolveStatus search() {
+        return new BitmaskSolver(grid).solve();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.benchmarks.Puzzle;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SolverManager#getPossibilities(Sudoku, int, int)} for every field of a sudoku.
+ * Lives in the package of the solver manager to access the method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PossibilitiesBenchmark {
+
+    @Param
+    public Puzzle puzzle;
+
+    private Sudoku sudoku;
+    private SolverManager solverManager;
+    private int size;
+
+    @Setup
+    public void setup() {
+        sudoku = puzzle.readSudoku();
+        solverManager = new SolverManager(sudoku);
+        size = sudoku.getWidth() * sudoku.getBoardWidth();
+    }
+
+    @Benchmark
+    public void getPossibilities(Blackhole blackhole) {
+        for(int y = 0; y < size; y++) {
+            for(int x = 0; x < size; x++)
+                blackhole.consume(solverManager.getPossibilities(sudoku, x, y));
+        }
+    }
+}
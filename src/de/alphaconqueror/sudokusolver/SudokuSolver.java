@@ -6,31 +6,572 @@
 
 package de.alphaconqueror.sudokusolver;
 
+import de.alphaconqueror.sudokusolver.solver.CachingStrategy;
+import de.alphaconqueror.sudokusolver.solver.DancingLinksStrategy;
+import de.alphaconqueror.sudokusolver.solver.DifficultyRater;
+import de.alphaconqueror.sudokusolver.solver.ParallelStrategy;
+import de.alphaconqueror.sudokusolver.solver.PuzzleGenerator;
+import de.alphaconqueror.sudokusolver.solver.SolutionCount;
+import de.alphaconqueror.sudokusolver.solver.SolveResult;
+import de.alphaconqueror.sudokusolver.solver.SolverStrategy;
+import de.alphaconqueror.sudokusolver.solver.StrategySelector;
 import de.alphaconqueror.sudokusolver.structure.Sudoku;
+import de.alphaconqueror.sudokusolver.structure.Topology;
+import de.alphaconqueror.sudokusolver.utils.BatchManager;
+import de.alphaconqueror.sudokusolver.utils.BinaryCodec;
+import de.alphaconqueror.sudokusolver.utils.BinaryReader;
+import de.alphaconqueror.sudokusolver.utils.BinaryRecord;
+import de.alphaconqueror.sudokusolver.utils.BinaryWriter;
+import de.alphaconqueror.sudokusolver.utils.BatchReport;
+import de.alphaconqueror.sudokusolver.utils.GeneratorManager;
 import de.alphaconqueror.sudokusolver.utils.IOManager;
+import de.alphaconqueror.sudokusolver.utils.MappedPuzzleReader;
+import de.alphaconqueror.sudokusolver.utils.MetricsManager;
+import de.alphaconqueror.sudokusolver.utils.PuzzleReader;
+import de.alphaconqueror.sudokusolver.utils.ServerManager;
 import de.alphaconqueror.sudokusolver.utils.SolverManager;
 
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
 public class SudokuSolver {
 
-    public static void main(String[] args) {
-        if(args.length == 0)
+    public static void main(String[] args) throws InterruptedException {
+        if(args.length > 0 && args[0].equals("--batch")) {
+            solveBatch(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if(args.length > 0 && args[0].equals("--convert")) {
+            convert(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if(args.length > 0 && args[0].equals("--generate")) {
+            generate(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        if(args.length > 0 && args[0].equals("--serve")) {
+            serve(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        boolean hasOption = args.length > 0 && args[0].startsWith("--");
+
+        if(args.length < (hasOption ? 2 : 1)) {
             System.err.println("Please specify a file containing the sudoku and its board specifications.");
+            return;
+        }
 
-        Sudoku sudoku = IOManager.readSudoku(args[0]);
+        Sudoku sudoku = IOManager.readSudoku(args[hasOption ? 1 : 0]);
 
-        printSudoku(sudoku);
+        if(hasOption && args[0].startsWith("--count")) {
+            countSolutions(args[0], sudoku);
+            return;
+        }
+
+        SolverStrategy strategy = getStrategy(hasOption ? args[0] : "--auto", sudoku);
+
+        if(strategy == null) {
+            System.err.println("Unknown option '" + args[0] + "', use --auto, --backtracking, --dlx, --parallel "
+                    + "or --count[=limit].");
+            return;
+        }
 
-        SolverManager solverManager = new SolverManager(sudoku);
+        printSudoku(sudoku);
 
         long millis = System.currentTimeMillis();
+        SolveResult result = strategy.solve(sudoku);
 
-        Sudoku solvedSudoku = solverManager.solveSudoku(sudoku);
+        if(!result.isSolved()) {
+            System.err.println("Solving not possible.");
+            return;
+        }
 
         System.out.println("\nSOLUTION: ");
-        printSudoku(solvedSudoku);
+        printSudoku(result.getSolution());
+        System.out.println("Calculated in " + (System.currentTimeMillis() - millis)/1000.0 + " seconds.");
+
+        if(result.getStatistics() != null)
+            System.out.println("Statistics: " + result.getStatistics());
+    }
+
+    /**
+     * Solves all {@link Sudoku}s given by the inputs concurrently and writes the results to the standard output.
+     * An input is a file, a directory or "-" to read paths from the standard input.
+     * The amount of worker threads can be set using "--threads=amount" before the inputs.
+     * Using "--lines" or "--blocks" before the inputs, every input is a file containing many sudokus
+     * in the corresponding {@link PuzzleReader.Format}, or "-" to read them from the standard input.
+     * Using "--jmx", the totals of the solver statistics are exported through JMX while solving.
+     * Using "--rate" together with one of the formats, the sudokus are rated instead of solved,
+     * see {@link DifficultyRater}. Using "--cache=entries", the results of equivalent sudokus are cached,
+     * see {@link CachingStrategy}.
+     *
+     * @param args The command line arguments following "--batch".
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting for a result
+     */
+    private static void solveBatch(String[] args) throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors(),
+            cacheCapacity = 0,
+            firstInput = 0;
+        PuzzleReader.Format format = null;
+        boolean rate = false;
+
+        for(; firstInput < args.length && args[firstInput].startsWith("--"); firstInput++) {
+            String option = args[firstInput];
+
+            if(option.startsWith("--threads=")) {
+                try {
+                    threads = Integer.parseInt(option.substring("--threads=".length()));
+                } catch(NumberFormatException e) {
+                    System.err.println("The given amount of threads is not a number.");
+                    return;
+                }
+
+                if(threads < 1) {
+                    System.err.println("The amount of threads has to be at least 1.");
+                    return;
+                }
+            } else if(option.startsWith("--cache=")) {
+                try {
+                    cacheCapacity = Integer.parseInt(option.substring("--cache=".length()));
+                } catch(NumberFormatException e) {
+                    System.err.println("The given amount of cache entries is not a number.");
+                    return;
+                }
+
+                if(cacheCapacity < 0) {
+                    System.err.println("The amount of cache entries can not be negative.");
+                    return;
+                }
+            } else if(option.equals("--lines"))
+                format = PuzzleReader.Format.LINES;
+            else if(option.equals("--blocks"))
+                format = PuzzleReader.Format.BLOCKS;
+            else if(option.equals("--jmx"))
+                MetricsManager.getInstance().register();
+            else if(option.equals("--rate"))
+                rate = true;
+            else {
+                System.err.println("Unknown option '" + option + "', use --threads=amount, --cache=entries, --lines, "
+                        + "--blocks, --jmx or --rate.");
+                return;
+            }
+        }
+
+        if(rate && format == null) {
+            System.err.println("Rating is only possible using --lines or --blocks.");
+            return;
+        }
+
+        if(firstInput == args.length) {
+            System.err.println("Please specify the files or directories containing the sudokus, or - to read paths "
+                    + "from the standard input.");
+            return;
+        }
+
+        String[] inputs = Arrays.copyOfRange(args, firstInput, args.length);
+        SolverStrategy strategy = getCachingStrategy(cacheCapacity);
+        BatchManager batchManager = new BatchManager(strategy, threads, 4 * threads);
+        BatchReport report;
+
+        if(format == null)
+            report = batchManager.solveAll(BatchManager.listPaths(inputs), System.out);
+        else {
+            try(PuzzleReader reader = new MappedPuzzleReader(format, inputs)) {
+                report = rate ? batchManager.rateAll(reader, new DifficultyRater(), System.out)
+                        : batchManager.solveAll(reader, format, System.out);
+            } catch(IllegalArgumentException | UncheckedIOException e) {
+                System.out.flush();
+                System.err.println(e.getMessage());
+                return;
+            }
+        }
+
+        System.out.flush();
+        System.err.println(report);
+
+        if(strategy instanceof CachingStrategy)
+            System.err.println(strategy);
+    }
+
+    /**
+     * Converts a file of {@link Sudoku}s between the text formats of {@link PuzzleReader.Format}
+     * and the binary format of {@link BinaryCodec}. The arguments are the format of the input, the format of the output,
+     * each one of "lines", "blocks" or "binary", the input file and the output file, "-" for the standard streams.
+     *
+     * @param args The command line arguments following "--convert".
+     */
+    private static void convert(String[] args) {
+        if(args.length != 4) {
+            System.err.println("Please specify the input format, the output format, the input file and the output file.");
+            return;
+        }
+
+        String from = args[0], to = args[1], input = args[2], output = args[3];
+
+        if(!isConvertFormat(from) || !isConvertFormat(to)) {
+            System.err.println("Unknown format, use lines, blocks or binary.");
+            return;
+        }
+
+        long count = 0;
+
+        try(Stream<BinaryRecord> stream = openRecords(from, input); OutputStream out = openOutput(output)) {
+            Iterator<BinaryRecord> records = stream.iterator();
+
+            if(to.equals("binary")) {
+                BinaryWriter writer = new BinaryWriter(out);
+
+                while(records.hasNext()) {
+                    writer.write(records.next());
+                    count++;
+                }
+
+                writer.flush();
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+                count = BinaryCodec.toText(records, getTextFormat(to), writer);
+                writer.flush();
+            }
+        } catch(IOException | UncheckedIOException | IllegalArgumentException e) {
+            System.err.println("Converting not possible: " + e.getMessage());
+            return;
+        }
+
+        System.err.println("Converted " + count + " sudokus.");
+    }
+
+    /**
+     * Generates {@link Sudoku}s with a unique solution concurrently and writes them to a file
+     * or the standard output, if no file or "-" is given after the options. The options are
+     * "--count=amount" (1 by default), "--size=boardWidthxboardHeight" (3x3 by default),
+     * "--seed=seed" (random by default), "--givens=minimum" to stop removing values at an amount of givens,
+     * "--guesses=maximum" to keep values whose removal takes more guesses to be checked, which is much faster
+     * for large sudokus but generates easier ones, "--threads=amount" and the format of the output,
+     * one of "--lines" (default), "--blocks" or "--binary". The seed is written to the standard error stream,
+     * so the same sudokus can be generated again.
+     *
+     * @param args The command line arguments following "--generate".
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting for a sudoku
+     */
+    private static void generate(String[] args) throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors(),
+            boardWidth = 3,
+            boardHeight = 3,
+            minGivens = 0,
+            firstOutput = 0;
+        long count = 1,
+             seed = new SplittableRandom().nextLong(),
+             maxCheckGuesses = Long.MAX_VALUE;
+        String format = "lines";
+
+        try {
+            for(; firstOutput < args.length && args[firstOutput].startsWith("--"); firstOutput++) {
+                String option = args[firstOutput],
+                       value = option.substring(option.indexOf('=') + 1);
+
+                if(option.startsWith("--count="))
+                    count = Long.parseLong(value);
+                else if(option.startsWith("--size=") && value.indexOf('x') > 0) {
+                    boardWidth = Integer.parseInt(value.substring(0, value.indexOf('x')));
+                    boardHeight = Integer.parseInt(value.substring(value.indexOf('x') + 1));
+                } else if(option.startsWith("--seed="))
+                    seed = Long.parseLong(value);
+                else if(option.startsWith("--givens="))
+                    minGivens = Integer.parseInt(value);
+                else if(option.startsWith("--guesses="))
+                    maxCheckGuesses = Long.parseLong(value);
+                else if(option.startsWith("--threads="))
+                    threads = Integer.parseInt(value);
+                else if(option.equals("--lines") || option.equals("--blocks") || option.equals("--binary"))
+                    format = option.substring(2);
+                else {
+                    System.err.println("Unknown option '" + option + "', use --count=amount, --size=widthxheight, "
+                            + "--seed=seed, --givens=minimum, --guesses=maximum, --threads=amount, --lines, --blocks "
+                            + "or --binary.");
+                    return;
+                }
+            }
+        } catch(NumberFormatException e) {
+            System.err.println("The option '" + args[firstOutput] + "' is not followed by a number.");
+            return;
+        }
+
+        if(threads < 1) {
+            System.err.println("The amount of threads has to be at least 1.");
+            return;
+        }
+
+        if(count < 0) {
+            System.err.println("The amount of sudokus can not be negative.");
+            return;
+        }
+
+        if(args.length > firstOutput + 1) {
+            System.err.println("Please specify at most one output file.");
+            return;
+        }
+
+        GeneratorManager generatorManager;
+
+        try {
+            generatorManager = new GeneratorManager(new PuzzleGenerator(Topology.of(boardWidth, boardHeight),
+                    minGivens, maxCheckGuesses), threads, 4 * threads);
+        } catch(IllegalArgumentException e) {
+            System.err.println("Generating not possible: " + e.getMessage());
+            return;
+        }
+
+        String output = firstOutput < args.length ? args[firstOutput] : "-",
+               textFormat = format;
+        long millis = System.currentTimeMillis();
+
+        try(OutputStream out = openOutput(output)) {
+            if(format.equals("binary")) {
+                BinaryWriter writer = new BinaryWriter(out);
+
+                generatorManager.generate(seed, count, record -> {
+                    try {
+                        writer.write(record.getSudoku());
+                    } catch(IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.flush();
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+                generatorManager.generate(seed, count, record -> {
+                    try {
+                        writer.write(textFormat.equals("lines") ? IOManager.formatLine(record.getSudoku())
+                                : IOManager.formatSudoku(record.getSudoku().toSudoku()));
+                    } catch(IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.flush();
+            }
+        } catch(IOException | UncheckedIOException | IllegalArgumentException e) {
+            System.err.println("Generating not possible: " + e.getMessage());
+            return;
+        }
+
+        System.err.println("Generated " + count + " sudokus with seed " + seed + " in "
+                + (System.currentTimeMillis() - millis)/1000.0 + " seconds.");
+    }
+
+    /**
+     * Starts a {@link ServerManager} solving sudokus over HTTP until the process is stopped. The options are
+     * "--host=address" (127.0.0.1 by default, so only local clients are served), "--port=port" (8080 by default),
+     * "--threads=amount" of worker threads, "--timeout=milliseconds" a request may take (10000 by default)
+     * and "--cache=entries" to cache the results of equivalent sudokus, see {@link CachingStrategy}.
+     *
+     * @param args The command line arguments following "--serve".
+     */
+    private static void serve(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors(),
+            port = 8080;
+        int cacheCapacity = 0;
+        long timeoutMillis = 10_000;
+        String host = "127.0.0.1";
+
+        for(String option : args) {
+            String value = option.substring(option.indexOf('=') + 1);
+
+            try {
+                if(option.startsWith("--host="))
+                    host = value;
+                else if(option.startsWith("--port="))
+                    port = Integer.parseInt(value);
+                else if(option.startsWith("--threads="))
+                    threads = Integer.parseInt(value);
+                else if(option.startsWith("--timeout="))
+                    timeoutMillis = Long.parseLong(value);
+                else if(option.startsWith("--cache="))
+                    cacheCapacity = Integer.parseInt(value);
+                else {
+                    System.err.println("Unknown option '" + option + "', use --host=address, --port=port, "
+                            + "--threads=amount, --timeout=milliseconds or --cache=entries.");
+                    return;
+                }
+            } catch(NumberFormatException e) {
+                System.err.println("The option '" + option + "' is not followed by a number.");
+                return;
+            }
+        }
+
+        try {
+            ServerManager serverManager = new ServerManager(getCachingStrategy(cacheCapacity), threads,
+                    16 * threads, timeoutMillis);
+            InetSocketAddress address = serverManager.start(new InetSocketAddress(host, port));
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> serverManager.stop(1)));
+            System.err.println("Listening on http://" + address.getHostString() + ":" + address.getPort() + "/.");
+        } catch(IOException | IllegalArgumentException e) {
+            System.err.println("Serving not possible: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the records of a file to be converted.
+     *
+     * @param format The format of the file.
+     * @param input  The path to the file, "-" for the standard input.
+     *
+     * @return The stream of the records, which closes the file when closed.
+     *
+     * @throws IOException if the file could not be opened
+     */
+    private static Stream<BinaryRecord> openRecords(String format, String input) throws IOException {
+        if(format.equals("binary"))
+            return (input.equals("-") ? new BinaryReader(System.in) : BinaryReader.open(input)).stream();
+
+        return new MappedPuzzleReader(getTextFormat(format), input).stream().map(grid -> new BinaryRecord(grid, null));
+    }
+
+    /**
+     * Opens the file the converted records are written to.
+     *
+     * @param output The path to the file, "-" for the standard output, which stays open when the stream is closed.
+     *
+     * @return The stream writing to the file.
+     *
+     * @throws IOException if the file could not be opened
+     */
+    private static OutputStream openOutput(String output) throws IOException {
+        if(!output.equals("-"))
+            return Files.newOutputStream(Paths.get(output));
+
+        return new FilterOutputStream(System.out) {
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    /**
+     * Checks if a command line argument names a format known by {@link #convert(String[])}.
+     *
+     * @param format The command line argument.
+     *
+     * @return true, if the format is known, false, if otherwise.
+     */
+    private static boolean isConvertFormat(String format) {
+        return format.equals("lines") || format.equals("blocks") || format.equals("binary");
+    }
+
+    /**
+     * Gets the {@link PuzzleReader.Format} named by a command line argument.
+     *
+     * @param format The command line argument, either "lines" or "blocks".
+     *
+     * @return The named format.
+     */
+    private static PuzzleReader.Format getTextFormat(String format) {
+        return format.equals("lines") ? PuzzleReader.Format.LINES : PuzzleReader.Format.BLOCKS;
+    }
+
+    /**
+     * Counts the solutions of a {@link Sudoku} and prints their amount and the first solution.
+     * The counting stops at the limit given by "--count=limit", by default at 2 to check for uniqueness.
+     *
+     * @param option The command line option.
+     * @param sudoku The sudoku to be counted.
+     */
+    private static void countSolutions(String option, Sudoku sudoku) {
+        long limit = 2;
+
+        if(option.startsWith("--count=")) {
+            try {
+                limit = Long.parseLong(option.substring("--count=".length()));
+            } catch(NumberFormatException e) {
+                System.err.println("The given limit is not a number.");
+                return;
+            }
+        } else if(!option.equals("--count")) {
+            System.err.println("Unknown option '" + option + "', use --count or --count=limit.");
+            return;
+        }
+
+        printSudoku(sudoku);
+
+        long millis = System.currentTimeMillis();
+        SolutionCount count;
+
+        try {
+            count = new SolverManager(sudoku).countSolutions(sudoku, limit, 1);
+        } catch(IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        System.out.println("\nFound " + count + (count.isUnique() ? ", the sudoku is unique." : "."));
+
+        if(count.isSolvable()) {
+            System.out.println("\nFIRST SOLUTION: ");
+            printSudoku(count.getSolutions().get(0).toSudoku());
+        }
+
         System.out.println("Calculated in " + (System.currentTimeMillis() - millis)/1000.0 + " seconds.");
     }
 
+    /**
+     * Gets the strategy used by the batch and server modes: a {@link StrategySelector},
+     * behind a {@link CachingStrategy}, if a capacity is given.
+     *
+     * @param cacheCapacity The maximum amount of cached results, 0 to disable the cache.
+     *
+     * @return The strategy.
+     */
+    private static SolverStrategy getCachingStrategy(int cacheCapacity) {
+        if(cacheCapacity == 0)
+            return new StrategySelector();
+
+        return new CachingStrategy(new StrategySelector(), cacheCapacity);
+    }
+
+    /**
+     * Gets the {@link SolverStrategy} selected by a command line option.
+     *
+     * @param option The command line option.
+     * @param sudoku The sudoku to be solved.
+     *
+     * @return The selected strategy, null, if the option is unknown.
+     */
+    private static SolverStrategy getStrategy(String option, Sudoku sudoku) {
+        switch(option) {
+            case "--auto":
+                return new StrategySelector();
+            case "--backtracking":
+                return new SolverManager(sudoku);
+            case "--dlx":
+                return new DancingLinksStrategy();
+            case "--parallel":
+                return new ParallelStrategy();
+            default:
+                return null;
+        }
+    }
+
     /**
      * Prints the {@link Sudoku} to the standard output {@link java.io.PrintStream}.
      *
@@ -0,0 +1,1112 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Board;
+import de.alphaconqueror.sudokusolver.structure.Field;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+import de.alphaconqueror.sudokusolver.structure.Topology;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class BitmaskSolver {
+
+    /**
+     * The maximum amount of possible values of a {@link Field} for the bitmasks to fit into a {@code long}.
+     */
+    public static final int MAX_SIZE = Long.SIZE;
+
+    /**
+     * The kinds of units, used to get the unit of a kind a {@link Field} belongs to.
+     */
+    private static final int HORIZONTAL_ROW = 0, VERTICAL_ROW = 1, BOARD = 2;
+
+    /**
+     * The {@link Topology} of the solved {@link Grid}.
+     */
+    private final Topology topology;
+
+    /**
+     * The side length of the {@link Grid} in amount of {@link Field}s, which equals the amount of possible values.
+     */
+    private final int size;
+
+    /**
+     * The bitmask containing all possible values. The value v is represented by the bit (v - 1).
+     */
+    private final long allValues;
+
+    /**
+     * The values of all {@link Field}s in row-major order.
+     */
+    private final int[] values;
+
+    /**
+     * The bitmasks of the values already used in every horizontal row, vertical row and {@link Board}.
+     */
+    private final long[] horizontalRowMasks, verticalRowMasks, boardMasks;
+
+    /**
+     * The bitmasks of the candidates of every {@link Field} eliminated by hidden singles and locked candidates
+     * in addition to the values used in its rows and {@link Board}.
+     */
+    private final long[] eliminations;
+
+    /**
+     * The candidates of the segments of the unit currently checked for locked candidates.
+     */
+    private final long[] segments;
+
+    /**
+     * The unsolved {@link Field}s that became naked singles since the last propagation and whether a field is queued.
+     * Every field is queued at most once, so the queue never holds more fields than the sudoku.
+     */
+    private final int[] fieldQueue;
+    private final boolean[] queuedFields;
+    private int fieldQueueSize;
+
+    /**
+     * The bitmasks of the values that lost candidates within every unit since the unit was last checked
+     * for hidden singles and for locked candidates respectively, together with the units with such changes.
+     * A unit is queued if and only if its bitmask is not 0.
+     */
+    private final long[] hiddenSingleChanges, lockedCandidateChanges;
+    private final int[] hiddenSingleQueue, lockedCandidateQueue;
+    private int hiddenSingleQueueSize, lockedCandidateQueueSize;
+
+    /**
+     * The changes in the order they were made, used to undo the changes of failed guesses.
+     * A placement is stored as the index of the placed {@link Field}, an elimination as the complement
+     * of the index of the field, whose eliminated candidates are stored at the same index in {@link #trailMasks}.
+     * Both arrays grow as needed.
+     */
+    private int[] trail;
+    private long[] trailMasks;
+
+    /**
+     * The amount of placements on the trail.
+     */
+    private int trailSize;
+
+    /**
+     * The decision frames of the search, one per open guess: the guessed {@link Field},
+     * the candidates of the field not tried yet and the size of the trail before the guess.
+     * A guess is only made on an unsolved field, so the depth is bounded by the amount of fields.
+     */
+    private final int[] guessFields, guessMarks;
+    private final long[] guessCandidates;
+
+    /**
+     * The amount of open guesses.
+     */
+    private int depth;
+
+    /**
+     * True, if the current state has not been propagated since the last placement.
+     */
+    private boolean propagationPending;
+
+    /**
+     * The amount of solutions after which the search stops, 1, unless solutions are counted.
+     */
+    private long solutionLimit = 1;
+
+    /**
+     * The amount of solutions found so far.
+     */
+    private long solutionCount;
+
+    /**
+     * The first solutions found while counting, at most {@link #maxSolutions}, null, if solutions are not counted.
+     */
+    private List<Grid> solutions;
+    private int maxSolutions;
+
+    /**
+     * The source of randomness ordering the candidates of every guess, null, if they are tried in ascending order.
+     */
+    private SplittableRandom random;
+
+    /**
+     * The status of the search, null, if it has not finished yet.
+     */
+    private SolveStatus status;
+
+    /**
+     * The amount of {@link Field}s without a value.
+     */
+    private int unsolvedFields;
+
+    /**
+     * False, if the given values already contain a duplicate or leave a {@link Field} without candidates.
+     */
+    private boolean consistent;
+
+    /**
+     * The statistics of this solver and whether the time of the phases is measured.
+     */
+    private final SolveStatistics statistics = new SolveStatistics();
+    private final boolean timed = SolveStatistics.isEnabled();
+
+    public BitmaskSolver(Sudoku sudoku) {
+        this(Grid.fromSudoku(sudoku));
+    }
+
+    public BitmaskSolver(Grid grid) {
+        this.topology = grid.getTopology();
+        this.size = topology.getSize();
+
+        if(size > MAX_SIZE)
+            throw new IllegalArgumentException("Only sudokus with at most " + MAX_SIZE
+                    + " possible values per field are supported.");
+
+        this.allValues = size == Long.SIZE ? -1L : (1L << size) - 1;
+        this.values = new int[topology.getFieldCount()];
+        this.horizontalRowMasks = new long[size];
+        this.verticalRowMasks = new long[size];
+        this.boardMasks = new long[size];
+        this.eliminations = new long[values.length];
+        this.segments = new long[size];
+        this.fieldQueue = new int[values.length];
+        this.queuedFields = new boolean[values.length];
+        this.hiddenSingleChanges = new long[topology.getUnitCount()];
+        this.lockedCandidateChanges = new long[topology.getUnitCount()];
+        this.hiddenSingleQueue = new int[topology.getUnitCount()];
+        this.lockedCandidateQueue = new int[topology.getUnitCount()];
+        this.trail = new int[values.length];
+        this.trailMasks = new long[values.length];
+        this.trailSize = 0;
+        this.guessFields = new int[values.length];
+        this.guessMarks = new int[values.length];
+        this.guessCandidates = new long[values.length];
+        this.depth = 0;
+        this.propagationPending = true;
+        this.unsolvedFields = values.length;
+        this.consistent = true;
+
+        readGrid(grid);
+        queueAll();
+    }
+
+    /**
+     * Creates a solver starting from the current values of another solver.
+     * Guesses the other solver currently made are taken over like given values.
+     *
+     * @param solver The solver to be copied.
+     */
+    public BitmaskSolver(BitmaskSolver solver) {
+        this.topology = solver.topology;
+        this.size = solver.size;
+        this.allValues = solver.allValues;
+        this.values = solver.values.clone();
+        this.horizontalRowMasks = solver.horizontalRowMasks.clone();
+        this.verticalRowMasks = solver.verticalRowMasks.clone();
+        this.boardMasks = solver.boardMasks.clone();
+        this.eliminations = solver.eliminations.clone();
+        this.segments = new long[size];
+        this.fieldQueue = new int[values.length];
+        this.queuedFields = new boolean[values.length];
+        this.hiddenSingleChanges = new long[topology.getUnitCount()];
+        this.lockedCandidateChanges = new long[topology.getUnitCount()];
+        this.hiddenSingleQueue = new int[topology.getUnitCount()];
+        this.lockedCandidateQueue = new int[topology.getUnitCount()];
+        this.trail = new int[values.length];
+        this.trailMasks = new long[values.length];
+        this.trailSize = 0;
+        this.guessFields = new int[values.length];
+        this.guessMarks = new int[values.length];
+        this.guessCandidates = new long[values.length];
+        this.depth = 0;
+        this.propagationPending = true;
+        this.unsolvedFields = solver.unsolvedFields;
+        this.consistent = solver.consistent;
+
+        queueAll();
+    }
+
+    /**
+     * Starts over with the values of another {@link Grid} of the same {@link Topology}, reusing the arrays
+     * of this solver, for example to solve many similar grids on the same thread.
+     * The statistics keep counting and the candidates of guesses keep being ordered as set before.
+     *
+     * @param grid The grid to be solved.
+     *
+     * @throws IllegalArgumentException if the grid has another topology
+     */
+    public void reset(Grid grid) {
+        if(grid.getTopology() != topology)
+            throw new IllegalArgumentException("The grid has another topology than the solver.");
+
+        clearQueues();
+        Arrays.fill(values, 0);
+        Arrays.fill(horizontalRowMasks, 0);
+        Arrays.fill(verticalRowMasks, 0);
+        Arrays.fill(boardMasks, 0);
+        Arrays.fill(eliminations, 0);
+        this.trailSize = 0;
+        this.depth = 0;
+        this.propagationPending = true;
+        this.solutionLimit = 1;
+        this.solutionCount = 0;
+        this.solutions = null;
+        this.status = null;
+        this.unsolvedFields = values.length;
+        this.consistent = true;
+
+        readGrid(grid);
+        queueAll();
+    }
+
+    /**
+     * Checks if the {@link Sudoku} can be solved by this solver.
+     *
+     * @param sudoku The sudoku to be checked.
+     *
+     * @return true, if the sudoku is square and the possible values of a field fit into a bitmask,
+     *         false, if otherwise.
+     */
+    public static boolean supports(Sudoku sudoku) {
+        return sudoku.getTopology().isSquare() && sudoku.getTopology().getSize() <= MAX_SIZE;
+    }
+
+    /**
+     * Reads the values of the {@link Grid} and marks them as used in their rows and {@link Board}s.
+     *
+     * @param grid The grid to be read.
+     */
+    private void readGrid(Grid grid) {
+        for(int fieldIndex = 0; fieldIndex < values.length; fieldIndex++) {
+            int value = grid.getValue(fieldIndex);
+
+            if(value == 0)
+                continue;
+
+            if((getCandidates(fieldIndex) & getBit(value)) == 0)
+                consistent = false;
+
+            assign(fieldIndex, value);
+        }
+
+        for(int fieldIndex = 0; fieldIndex < values.length && consistent; fieldIndex++) {
+            if(values[fieldIndex] == 0 && getCandidates(fieldIndex) == 0)
+                consistent = false;
+        }
+    }
+
+    /**
+     * Queues every naked single and every unit with all values, so the next propagation checks the whole state.
+     */
+    private void queueAll() {
+        for(int fieldIndex = 0; fieldIndex < values.length; fieldIndex++) {
+            long candidates = getCandidates(fieldIndex);
+
+            if(values[fieldIndex] == 0 && candidates != 0 && (candidates & (candidates - 1)) == 0)
+                queueField(fieldIndex);
+        }
+
+        for(int unit = 0; unit < topology.getUnitCount(); unit++)
+            queueUnit(unit, allValues);
+    }
+
+    /**
+     * Solves the read {@link Grid}.
+     *
+     * @return {@link SolveStatus#SOLVED}, if a solution was found,
+     *         {@link SolveStatus#UNSOLVABLE}, if the grid is not solvable.
+     */
+    public SolveStatus solve() {
+        return resume(Long.MAX_VALUE);
+    }
+
+    /**
+     * Solves the read {@link Grid} within the limits of the given {@link SolveOptions}.
+     * The search is resumed in steps of {@link SolveOptions#CHECK_INTERVAL} guesses, checking the options in between.
+     * A stopped search keeps its state and can still be resumed using {@link #resume(long)}.
+     *
+     * @param options The limits of the solve.
+     *
+     * @return {@link SolveStatus#SOLVED}, if a solution was found,
+     *         {@link SolveStatus#UNSOLVABLE}, if the grid is not solvable,
+     *         {@link SolveStatus#TIMEOUT} or {@link SolveStatus#ABORTED}, if the search was stopped by the options.
+     */
+    public SolveStatus solve(SolveOptions options) {
+        long guesses = 0;
+
+        while(true) {
+            long steps = Math.min(SolveOptions.CHECK_INTERVAL, options.getMaxGuesses() - guesses);
+            SolveStatus status = resume(steps);
+
+            if(status != SolveStatus.PAUSED)
+                return status;
+
+            guesses += steps;
+
+            SolveStatus stopStatus = options.getStopStatus(guesses);
+
+            if(stopStatus != null)
+                return stopStatus;
+        }
+    }
+
+    /**
+     * Counts the solutions of the read {@link Grid}. Instead of stopping at the first solution,
+     * the search continues until all solutions have been found or the limit is reached,
+     * so counting costs about as much as solving and no copies are made besides the kept solutions.
+     * Like {@link #solve()}, this can only be done once per solver.
+     *
+     * @param limit        The amount of solutions after which the counting stops, 2 to check for uniqueness.
+     * @param maxSolutions The maximum amount of solutions to be kept.
+     *
+     * @return The amount of solutions found and the first solutions.
+     *
+     * @throws IllegalArgumentException if the limit is smaller than 1 or the maximum amount of solutions is negative
+     * @throws IllegalStateException    if the search has already been started
+     */
+    public SolutionCount countSolutions(long limit, int maxSolutions) {
+        if(limit < 1)
+            throw new IllegalArgumentException("The limit has to be at least 1.");
+        if(maxSolutions < 0)
+            throw new IllegalArgumentException("The maximum amount of solutions can not be negative.");
+
+        if(status != null || depth > 0)
+            throw new IllegalStateException("The search has already been started.");
+
+        solutionLimit = limit;
+        solutions = new ArrayList<>();
+        this.maxSolutions = maxSolutions;
+
+        resume(Long.MAX_VALUE);
+
+        return new SolutionCount(solutionCount, limit, solutions);
+    }
+
+    /**
+     * Continues the search until it finishes or the given amount of guesses has been made.
+     * The whole state of the search is kept by this solver, so a paused search can be resumed at any time.
+     *
+     * @param maxGuesses The maximum amount of guesses to be made before pausing.
+     *
+     * @return {@link SolveStatus#SOLVED}, if a solution was found,
+     *         {@link SolveStatus#UNSOLVABLE}, if the grid is not solvable,
+     *         {@link SolveStatus#PAUSED}, if the search has not finished after the given amount of guesses.
+     */
+    public SolveStatus resume(long maxGuesses) {
+        if(status != null)
+            return status;
+
+        if(!consistent)
+            return status = SolveStatus.UNSOLVABLE;
+
+        long start = timed ? System.nanoTime() : 0,
+             propagationNanos = statistics.propagationNanos;
+        SolveStatus result = search(maxGuesses);
+
+        if(timed)
+            statistics.searchNanos += System.nanoTime() - start - (statistics.propagationNanos - propagationNanos);
+
+        if(result != SolveStatus.PAUSED)
+            status = result;
+
+        return result;
+    }
+
+    /**
+     * Propagates the current state without guessing, see {@link #placeSingles()}.
+     * Like {@link #setValue(int, int)}, this is meant to be used before the search is started.
+     *
+     * @return {@link SolveStatus#SOLVED}, if no unsolved {@link Field} is left,
+     *         {@link SolveStatus#UNSOLVABLE}, if a field is left without candidates,
+     *         {@link SolveStatus#PAUSED}, if the remaining fields can only be solved by guessing.
+     */
+    public SolveStatus propagate() {
+        if(consistent && !timedPlaceSingles())
+            consistent = false;
+
+        if(!consistent)
+            return SolveStatus.UNSOLVABLE;
+
+        return unsolvedFields == 0 ? SolveStatus.SOLVED : SolveStatus.PAUSED;
+    }
+
+    /**
+     * Places a value at an unsolved {@link Field} before the search is started,
+     * for example to branch on a copy of this solver.
+     *
+     * @param fieldIndex The index of the field.
+     * @param value      The value to be placed.
+     *
+     * @return false, if the value is not a candidate of the field or the placement left a peer without candidates,
+     *         true, if otherwise.
+     */
+    public boolean setValue(int fieldIndex, int value) {
+        if(values[fieldIndex] != 0 || (getCandidates(fieldIndex) & getBit(value)) == 0)
+            return false;
+
+        if(!place(fieldIndex, value))
+            consistent = false;
+
+        return consistent;
+    }
+
+    /**
+     * Eliminates a candidate of an unsolved {@link Field} before the search is started,
+     * for example to check if there is a solution with another value at the field.
+     *
+     * @param fieldIndex The index of the field.
+     * @param value      The value to be eliminated.
+     *
+     * @return false, if the elimination left the field without candidates, true, if otherwise.
+     */
+    public boolean excludeValue(int fieldIndex, int value) {
+        if(consistent && !eliminate(fieldIndex, getBit(value)))
+            consistent = false;
+
+        return consistent;
+    }
+
+    /**
+     * Tries the candidates of every guess in a random order instead of the ascending one,
+     * for example to find a random solution of an empty {@link Grid}.
+     *
+     * @param random The source of randomness, null to try the candidates in ascending order.
+     */
+    public void setRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Gets the amount of {@link Field}s without a value in the current state of the search.
+     *
+     * @return The amount of unsolved fields.
+     */
+    public int getUnsolvedFieldCount() {
+        return unsolvedFields;
+    }
+
+    /**
+     * Gets a snapshot of the statistics of this solver.
+     *
+     * @return A copy of the current statistics.
+     */
+    public SolveStatistics getStatistics() {
+        return statistics.copy();
+    }
+
+    /**
+     * Sets the statistics of this solver back to 0, so a solver reused by {@link #reset(Grid)}
+     * only reports the statistics of the current grid.
+     */
+    public void clearStatistics() {
+        statistics.clear();
+    }
+
+    /**
+     * Gets the {@link Topology} of the solved {@link Grid}.
+     *
+     * @return The topology of the grid.
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Writes the values found by this solver to the {@link Field}s of the {@link Sudoku} that do not have a value yet.
+     *
+     * @param sudoku The sudoku to be written.
+     *
+     * @return The written sudoku.
+     */
+    public Sudoku writeSudoku(Sudoku sudoku) {
+        for(int fieldIndex = 0; fieldIndex < values.length; fieldIndex++) {
+            int x = fieldIndex % size,
+                y = fieldIndex / size,
+                value = values[fieldIndex];
+
+            if(value != 0 && !sudoku.getFieldAt(x, y).hasValue())
+                sudoku.setFieldValueAt(x, y, value);
+        }
+
+        return sudoku;
+    }
+
+    /**
+     * Writes the values found by this solver to the {@link Grid}.
+     *
+     * @param grid The grid to be written.
+     *
+     * @return The written grid.
+     */
+    public Grid writeGrid(Grid grid) {
+        for(int fieldIndex = 0; fieldIndex < values.length; fieldIndex++)
+            grid.setValue(fieldIndex, values[fieldIndex]);
+
+        return grid;
+    }
+
+    /**
+     * Propagates the current state and guesses the value of the most constrained {@link Field} afterwards.
+     * The search works in place, every failed guess is reverted by undoing the placements made since.
+     * Instead of recursing, every guess is kept in a preallocated decision frame.
+     *
+     * @param maxGuesses The maximum amount of guesses to be made before pausing.
+     *
+     * @return The status of the search.
+     */
+    private SolveStatus search(long maxGuesses) {
+        long guesses = 0;
+
+        while(true) {
+            if(propagationPending) {
+                propagationPending = false;
+
+                if(timedPlaceSingles()) {
+                    if(unsolvedFields == 0) {
+                        if(countSolution())
+                            return SolveStatus.SOLVED;
+                    } else {
+                        int fieldIndex = getMostConstrainedField();
+
+                        guessFields[depth] = fieldIndex;
+                        guessCandidates[depth] = getCandidates(fieldIndex);
+                        guessMarks[depth] = trailSize;
+                        depth++;
+                    }
+                }
+            }
+
+            if(depth == 0)
+                return SolveStatus.UNSOLVABLE;
+
+            int frame = depth - 1;
+            long candidates = guessCandidates[frame];
+
+            if(trailSize > guessMarks[frame])
+                statistics.backtracks++;
+
+            undo(guessMarks[frame]);
+
+            if(candidates == 0) {
+                depth--;
+                statistics.backtrackedLevels++;
+                continue;
+            }
+
+            if(guesses++ == maxGuesses)
+                return SolveStatus.PAUSED;
+
+            statistics.countGuess(depth);
+
+            long bit = random == null ? Long.lowestOneBit(candidates) : getRandomBit(candidates);
+
+            guessCandidates[frame] = candidates ^ bit;
+            propagationPending = place(guessFields[frame], Long.numberOfTrailingZeros(bit) + 1);
+        }
+    }
+
+    /**
+     * Chooses one of the candidates of a guess at random.
+     *
+     * @param candidates The bitmask of the candidates, which must not be 0.
+     *
+     * @return The bit of the chosen candidate.
+     */
+    private long getRandomBit(long candidates) {
+        for(int skipped = random.nextInt(Long.bitCount(candidates)); skipped > 0; skipped--)
+            candidates &= candidates - 1;
+
+        return Long.lowestOneBit(candidates);
+    }
+
+    /**
+     * Counts the solution of the current state and keeps a copy of it, if solutions are counted
+     * and not enough solutions have been kept yet.
+     *
+     * @return true, if the search should stop, false, if it should continue with the next guess.
+     */
+    private boolean countSolution() {
+        solutionCount++;
+
+        if(solutions != null && solutions.size() < maxSolutions)
+            solutions.add(writeGrid(new Grid(topology)));
+
+        return solutionCount >= solutionLimit;
+    }
+
+    /**
+     * Calls {@link #placeSingles()}, adding the time spent to the statistics if they are enabled.
+     *
+     * @return false, if the current state turned out to be unsolvable, true, if otherwise.
+     */
+    private boolean timedPlaceSingles() {
+        if(!timed)
+            return placeSingles();
+
+        long start = System.nanoTime();
+        boolean result = placeSingles();
+
+        statistics.propagationNanos += System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Propagates the current state until nothing changes anymore. Instead of scanning the whole state,
+     * only the queued changes are processed, so the cost depends on the amount of changes rather than on the size.
+     * Naked singles are placed first, queued units are only checked for hidden singles if no naked single is left
+     * and for locked candidates if no single is left at all.
+     *
+     * @return false, if the current state turned out to be unsolvable, true, if otherwise.
+     */
+    private boolean placeSingles() {
+        int placements = 0;
+        boolean result = true;
+
+        while(result) {
+            if(fieldQueueSize > 0) {
+                int fieldIndex = fieldQueue[--fieldQueueSize];
+
+                queuedFields[fieldIndex] = false;
+
+                if(values[fieldIndex] != 0)
+                    continue;
+
+                // candidates only shrink while a field is queued, so it is still a naked single or has none left
+                long candidates = getCandidates(fieldIndex);
+
+                result = candidates != 0 && place(fieldIndex, Long.numberOfTrailingZeros(candidates) + 1);
+                placements++;
+            } else if(unsolvedFields == 0) {
+                break;
+            } else if(hiddenSingleQueueSize > 0) {
+                int unit = hiddenSingleQueue[--hiddenSingleQueueSize];
+                long changes = hiddenSingleChanges[unit];
+
+                hiddenSingleChanges[unit] = 0;
+                result = placeHiddenSingles(unit, changes);
+            } else if(lockedCandidateQueueSize > 0) {
+                int unit = lockedCandidateQueue[--lockedCandidateQueueSize];
+                long changes = lockedCandidateChanges[unit];
+
+                lockedCandidateChanges[unit] = 0;
+                result = eliminateLockedCandidates(unit, changes);
+            } else {
+                break;
+            }
+        }
+
+        statistics.countRound(placements);
+        return result;
+    }
+
+    /**
+     * Places every value that has only one possible {@link Field} left within a unit.
+     * Only values that lost candidates within the unit can have become hidden singles.
+     *
+     * @param unit    The index of the unit as used by {@link Topology#getUnits()}.
+     * @param changes The bitmask of the values that lost candidates within the unit.
+     *
+     * @return false, if a value has no possible field left within the unit
+     *         or a placement left a field without any candidates, true, if otherwise.
+     */
+    private boolean placeHiddenSingles(int unit, long changes) {
+        int[] units = topology.getUnits();
+        int start = unit * size, end = start + size;
+        long once = 0, twice = 0;
+
+        for(int i = start; i < end; i++) {
+            int fieldIndex = units[i];
+
+            if(values[fieldIndex] != 0)
+                continue;
+
+            long candidates = getCandidates(fieldIndex);
+
+            twice |= once & candidates;
+            once |= candidates;
+        }
+
+        if((once | getUnitMask(unit)) != allValues)
+            return false;
+
+        long hiddenSingles = once & ~twice & changes;
+
+        while(hiddenSingles != 0) {
+            long bit = Long.lowestOneBit(hiddenSingles);
+            int i = start;
+
+            hiddenSingles ^= bit;
+
+            // a field holding two hidden singles of the unit has already been filled by the first one
+            while(i < end && (values[units[i]] != 0 || (getCandidates(units[i]) & bit) == 0))
+                i++;
+
+            if(i == end || !place(units[i], Long.numberOfTrailingZeros(bit) + 1))
+                return false;
+
+            statistics.hiddenSingles++;
+        }
+
+        return true;
+    }
+
+    /**
+     * Eliminates the locked candidates of a unit. If the candidates of a value within a {@link Board}
+     * all lie in the same row, the value can not be placed anywhere else in that row (pointing).
+     * If the candidates of a value within a row all lie in the same board,
+     * the value can not be placed anywhere else in that board (claiming).
+     * Only values that lost candidates within the unit can have become locked.
+     *
+     * @param unit    The index of the unit as used by {@link Topology#getUnits()}.
+     * @param changes The bitmask of the values that lost candidates within the unit.
+     *
+     * @return false, if an elimination left a field without any candidates, true, if otherwise.
+     */
+    private boolean eliminateLockedCandidates(int unit, long changes) {
+        int boardWidth = topology.getBoardWidth(),
+            boardHeight = topology.getBoardHeight();
+
+        if(unit < size)
+            return eliminateLockedCandidates(unit, changes, size / boardWidth, boardWidth, boardWidth, 1, BOARD);
+
+        if(unit < 2 * size)
+            return eliminateLockedCandidates(unit, changes, size / boardHeight, boardHeight, boardHeight, 1, BOARD);
+
+        return eliminateLockedCandidates(unit, changes, boardHeight, boardWidth, boardWidth, 1, HORIZONTAL_ROW)
+                && eliminateLockedCandidates(unit, changes, boardWidth, boardHeight, 1, boardWidth, VERTICAL_ROW);
+    }
+
+    /**
+     * Splits a unit into the segments it shares with the crossing units of a kind and eliminates every value
+     * whose candidates within the unit all lie in one segment from the rest of the crossing unit of the segment.
+     *
+     * @param unit          The index of the unit as used by {@link Topology#getUnits()}.
+     * @param changes       The bitmask of the values that lost candidates within the unit.
+     * @param segmentCount  The amount of segments of the unit.
+     * @param segmentLength The amount of {@link Field}s per segment.
+     * @param segmentStep   The distance between the first fields of two segments within the unit.
+     * @param fieldStep     The distance between two fields of a segment within the unit.
+     * @param crossingKind  The kind of the crossing units.
+     *
+     * @return false, if an elimination left a field without any candidates, true, if otherwise.
+     */
+    private boolean eliminateLockedCandidates(int unit, long changes, int segmentCount, int segmentLength,
+                                              int segmentStep, int fieldStep, int crossingKind) {
+        int[] units = topology.getUnits();
+        int start = unit * size;
+        long once = 0, twice = 0;
+
+        for(int segment = 0; segment < segmentCount; segment++) {
+            long candidates = 0;
+
+            for(int i = 0; i < segmentLength; i++) {
+                int fieldIndex = units[start + segment * segmentStep + i * fieldStep];
+
+                if(values[fieldIndex] == 0)
+                    candidates |= getCandidates(fieldIndex);
+            }
+
+            segments[segment] = candidates;
+            twice |= once & candidates;
+            once |= candidates;
+        }
+
+        for(int segment = 0; segment < segmentCount; segment++) {
+            long locked = segments[segment] & ~twice & changes;
+
+            if(locked == 0)
+                continue;
+
+            int crossingStart = getUnit(units[start + segment * segmentStep], crossingKind) * size;
+
+            for(int i = crossingStart; i < crossingStart + size; i++) {
+                int fieldIndex = units[i];
+
+                if(getUnit(fieldIndex, unit / size) != unit && !eliminate(fieldIndex, locked))
+                    return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Eliminates candidates of a {@link Field}.
+     *
+     * @param fieldIndex The index of the field.
+     * @param bits       The bitmask of the candidates to be eliminated, may contain values that are no candidates.
+     *
+     * @return false, if the elimination left the field without any candidates, true, if otherwise.
+     */
+    private boolean eliminate(int fieldIndex, long bits) {
+        if(values[fieldIndex] != 0)
+            return true;
+
+        long candidates = getCandidates(fieldIndex);
+
+        bits &= candidates;
+
+        if(bits == 0)
+            return true;
+
+        ensureTrailCapacity();
+        eliminations[fieldIndex] |= bits;
+        trailMasks[trailSize] = bits;
+        trail[trailSize++] = ~fieldIndex;
+        statistics.eliminatedCandidates += Long.bitCount(bits);
+
+        return changeCandidates(fieldIndex, bits, candidates ^ bits);
+    }
+
+    /**
+     * Queues the changes caused by a {@link Field} losing candidates.
+     *
+     * @param fieldIndex The index of the field.
+     * @param lost       The bitmask of the candidates the field lost.
+     * @param candidates The bitmask of the remaining candidates of the field.
+     *
+     * @return false, if the field has no candidates left, true, if otherwise.
+     */
+    private boolean changeCandidates(int fieldIndex, long lost, long candidates) {
+        if(candidates == 0)
+            return false;
+
+        if((candidates & (candidates - 1)) == 0)
+            queueField(fieldIndex);
+
+        queueUnits(fieldIndex, lost);
+        return true;
+    }
+
+    /**
+     * Queues a {@link Field} that became a naked single, unless it is queued already.
+     *
+     * @param fieldIndex The index of the field.
+     */
+    private void queueField(int fieldIndex) {
+        if(!queuedFields[fieldIndex]) {
+            queuedFields[fieldIndex] = true;
+            fieldQueue[fieldQueueSize++] = fieldIndex;
+        }
+    }
+
+    /**
+     * Queues the changes of the units a {@link Field} belongs to.
+     *
+     * @param fieldIndex The index of the field.
+     * @param changes    The bitmask of the values that lost candidates within the units.
+     */
+    private void queueUnits(int fieldIndex, long changes) {
+        queueUnit(getUnit(fieldIndex, HORIZONTAL_ROW), changes);
+        queueUnit(getUnit(fieldIndex, VERTICAL_ROW), changes);
+        queueUnit(getUnit(fieldIndex, BOARD), changes);
+    }
+
+    /**
+     * Queues the changes of a unit for the checks for hidden singles and locked candidates.
+     *
+     * @param unit    The index of the unit as used by {@link Topology#getUnits()}.
+     * @param changes The bitmask of the values that lost candidates within the unit.
+     */
+    private void queueUnit(int unit, long changes) {
+        if(hiddenSingleChanges[unit] == 0)
+            hiddenSingleQueue[hiddenSingleQueueSize++] = unit;
+
+        if(lockedCandidateChanges[unit] == 0)
+            lockedCandidateQueue[lockedCandidateQueueSize++] = unit;
+
+        hiddenSingleChanges[unit] |= changes;
+        lockedCandidateChanges[unit] |= changes;
+    }
+
+    /**
+     * Removes all queued changes, for example because they belong to a reverted guess.
+     */
+    private void clearQueues() {
+        while(fieldQueueSize > 0)
+            queuedFields[fieldQueue[--fieldQueueSize]] = false;
+
+        while(hiddenSingleQueueSize > 0)
+            hiddenSingleChanges[hiddenSingleQueue[--hiddenSingleQueueSize]] = 0;
+
+        while(lockedCandidateQueueSize > 0)
+            lockedCandidateChanges[lockedCandidateQueue[--lockedCandidateQueueSize]] = 0;
+    }
+
+    /**
+     * Grows the trail if it is full.
+     */
+    private void ensureTrailCapacity() {
+        if(trailSize == trail.length) {
+            trail = Arrays.copyOf(trail, 2 * trail.length);
+            trailMasks = Arrays.copyOf(trailMasks, trail.length);
+        }
+    }
+
+    /**
+     * Gets the index of the unit of a kind a {@link Field} belongs to.
+     *
+     * @param fieldIndex The index of the field.
+     * @param kind       The kind of the unit.
+     *
+     * @return The index of the unit as used by {@link Topology#getUnits()}.
+     */
+    private int getUnit(int fieldIndex, int kind) {
+        if(kind == HORIZONTAL_ROW)
+            return topology.getHorizontalRowUnit(fieldIndex);
+
+        if(kind == VERTICAL_ROW)
+            return topology.getVerticalRowUnit(fieldIndex);
+
+        return topology.getBoardUnit(fieldIndex);
+    }
+
+    /**
+     * Gets the bitmask of the values already used in a unit.
+     *
+     * @param unit The index of the unit as used by {@link Topology#getUnits()}.
+     *
+     * @return The bitmask of the used values of the unit.
+     */
+    private long getUnitMask(int unit) {
+        if(unit < size)
+            return horizontalRowMasks[unit];
+
+        return unit < 2 * size ? verticalRowMasks[unit - size] : boardMasks[unit - 2 * size];
+    }
+
+    /**
+     * Gets the index of the unsolved {@link Field} with the least candidates.
+     *
+     * @return The index of the most constrained field, -1, if every field is solved.
+     */
+    public int getMostConstrainedField() {
+        int bestIndex = -1, bestCount = Integer.MAX_VALUE;
+
+        for(int i = 0; i < values.length; i++) {
+            if(values[i] != 0)
+                continue;
+
+            int count = Long.bitCount(getCandidates(i));
+
+            if(count < bestCount) {
+                bestIndex = i;
+                bestCount = count;
+
+                if(count <= 2)
+                    break;
+            }
+        }
+
+        return bestIndex;
+    }
+
+    /**
+     * Gets the bitmask of all values that can still be placed at a {@link Field}.
+     *
+     * @param fieldIndex The index of the field.
+     *
+     * @return The bitmask of the candidates of the field. The value v is represented by the bit (v - 1).
+     */
+    public long getCandidates(int fieldIndex) {
+        statistics.candidateEvaluations++;
+
+        return allValues & ~(horizontalRowMasks[topology.getHorizontalRowIndex(fieldIndex)]
+                | verticalRowMasks[topology.getVerticalRowIndex(fieldIndex)]
+                | boardMasks[topology.getBoardIndex(fieldIndex)] | eliminations[fieldIndex]);
+    }
+
+    /**
+     * Places a value at a {@link Field}, checks if every unsolved peer of the field still has a candidate
+     * and queues the changes caused by the placement.
+     *
+     * @param fieldIndex The index of the field.
+     * @param value      The value to be placed.
+     *
+     * @return false, if the placement left a peer without any candidates, true, if otherwise.
+     */
+    private boolean place(int fieldIndex, int value) {
+        int[] peers = topology.getPeers();
+        int peerCount = topology.getPeerCount();
+        long bit = getBit(value);
+
+        for(int i = fieldIndex * peerCount; i < (fieldIndex + 1) * peerCount; i++) {
+            int peer = peers[i];
+
+            if(values[peer] != 0)
+                continue;
+
+            long candidates = getCandidates(peer);
+
+            if((candidates & bit) != 0 && !changeCandidates(peer, bit, candidates ^ bit))
+                return false;
+        }
+
+        // the other candidates of the field lose their place in its units
+        queueUnits(fieldIndex, getCandidates(fieldIndex) & ~bit);
+        assign(fieldIndex, value);
+
+        return true;
+    }
+
+    /**
+     * Assigns a value to a {@link Field} and marks it as used in the rows and the {@link Board} of the field.
+     *
+     * @param fieldIndex The index of the field.
+     * @param value      The value to be assigned.
+     */
+    private void assign(int fieldIndex, int value) {
+        long bit = getBit(value);
+
+        values[fieldIndex] = value;
+        horizontalRowMasks[topology.getHorizontalRowIndex(fieldIndex)] |= bit;
+        verticalRowMasks[topology.getVerticalRowIndex(fieldIndex)] |= bit;
+        boardMasks[topology.getBoardIndex(fieldIndex)] |= bit;
+        ensureTrailCapacity();
+        trail[trailSize++] = fieldIndex;
+        unsolvedFields--;
+    }
+
+    /**
+     * Reverts all placements and eliminations made after the trail had the given size.
+     *
+     * @param mark The size of the trail to be restored.
+     */
+    private void undo(int mark) {
+        clearQueues();
+
+        while(trailSize > mark) {
+            int fieldIndex = trail[--trailSize];
+
+            if(fieldIndex < 0) {
+                eliminations[~fieldIndex] &= ~trailMasks[trailSize];
+                continue;
+            }
+
+            long bit = ~getBit(values[fieldIndex]);
+
+            values[fieldIndex] = 0;
+            horizontalRowMasks[topology.getHorizontalRowIndex(fieldIndex)] &= bit;
+            verticalRowMasks[topology.getVerticalRowIndex(fieldIndex)] &= bit;
+            boardMasks[topology.getBoardIndex(fieldIndex)] &= bit;
+            unsolvedFields++;
+        }
+    }
+
+    /**
+     * Gets the bit representing a value.
+     *
+     * @param value The value.
+     *
+     * @return The bit representing the value.
+     */
+    private static long getBit(int value) {
+        return 1L << (value - 1);
+    }
+}
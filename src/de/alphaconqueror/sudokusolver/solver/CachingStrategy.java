@@ -0,0 +1,268 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+import de.alphaconqueror.sudokusolver.utils.RuleValidator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the results of another {@link SolverStrategy} by the {@link CanonicalForm} of the sudokus,
+ * so a sudoku is only solved once, no matter how often it or an equivalent sudoku is solved again.
+ * The canonical form is solved instead of the sudoku itself and its solution is mapped back onto every sudoku
+ * sharing it. The cache holds a bounded amount of results and evicts the least recently used one first.
+ * It is split into segments by the hash code of the canonical form, so threads rarely wait for each other.
+ * Non-square sudokus, sudokus whose givens break the rules and solves stopped before they finished
+ * are not cached, the former two are solved by the other strategy directly.
+ */
+public class CachingStrategy implements SolverStrategy {
+
+    /**
+     * The maximum amount of segments the cache is split into.
+     */
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * The strategy solving the sudokus that are not cached.
+     */
+    private final SolverStrategy strategy;
+
+    /**
+     * The maximum amount of cached results.
+     */
+    private final int capacity;
+
+    /**
+     * The segments of the cache.
+     */
+    private final Segment[] segments;
+
+    /**
+     * The amount of sudokus found in the cache, not found in the cache and evicted from the cache.
+     */
+    private final LongAdder hits = new LongAdder(),
+                             misses = new LongAdder(),
+                             evictions = new LongAdder();
+
+    /**
+     * @param strategy The strategy solving the sudokus that are not cached, which has to be thread-safe.
+     * @param capacity The maximum amount of cached results.
+     */
+    public CachingStrategy(SolverStrategy strategy, int capacity) {
+        if(capacity < 1)
+            throw new IllegalArgumentException("The capacity of the cache has to be at least 1.");
+
+        int segmentCount = Math.min(MAX_SEGMENTS, capacity);
+
+        this.strategy = strategy;
+        this.capacity = capacity;
+        this.segments = new Segment[segmentCount];
+
+        for(int i = 0; i < segmentCount; i++)
+            segments[i] = new Segment(capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0));
+    }
+
+    @Override
+    public SolveResult solve(Sudoku sudoku, SolveOptions options) {
+        if(!sudoku.getTopology().isSquare())
+            return strategy.solve(sudoku, options);
+
+        Grid grid = Grid.fromSudoku(sudoku);
+
+        if(!new RuleValidator(grid).isValid())
+            return strategy.solve(sudoku, options);
+
+        CanonicalForm form = CanonicalForm.of(grid);
+        Segment segment = segments[Math.floorMod(form.hashCode(), segments.length)];
+        CachedResult cached = segment.get(form);
+
+        if(cached != null) {
+            hits.increment();
+            return new SolveResult(cached.status, cached.solution == null ? null
+                    : form.toOriginal(cached.solution).toSudoku());
+        }
+
+        misses.increment();
+
+        SolveResult result = strategy.solve(form.getGrid().toSudoku(), options);
+
+        if(result.getStatus() != SolveStatus.SOLVED && result.getStatus() != SolveStatus.UNSOLVABLE)
+            return result;
+
+        Grid solution = result.isSolved() ? Grid.fromSudoku(result.getSolution(), form.getTopology()) : null;
+
+        segment.put(form, new CachedResult(result.getStatus(), solution));
+
+        return new SolveResult(result.getStatus(), solution == null ? null : form.toOriginal(solution).toSudoku(),
+                result.getStatistics());
+    }
+
+    /**
+     * Gets the amount of sudokus whose result was found in the cache.
+     *
+     * @return The amount of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the amount of sudokus whose result was not found in the cache and had to be solved.
+     *
+     * @return The amount of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the amount of results evicted from the cache to make room for new ones.
+     *
+     * @return The amount of evictions.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the share of sudokus whose result was found in the cache.
+     *
+     * @return The hit rate between 0 and 1, 0, if no sudoku has been solved yet.
+     */
+    public double getHitRate() {
+        long hits = getHits(),
+             total = hits + getMisses();
+
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Gets the amount of cached results.
+     *
+     * @return The amount of cached results.
+     */
+    public int getSize() {
+        int size = 0;
+
+        for(Segment segment : segments)
+            size += segment.size();
+
+        return size;
+    }
+
+    /**
+     * Gets the maximum amount of cached results.
+     *
+     * @return The capacity of the cache.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Removes all cached results. The counters are kept.
+     */
+    public void clear() {
+        for(Segment segment : segments)
+            segment.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "cache " + getSize() + "/" + capacity + ", " + getHits() + " hits, " + getMisses() + " misses, "
+                + getEvictions() + " evictions, hit rate " + String.format("%.2f", getHitRate());
+    }
+
+    /**
+     * A part of the cache in access order, evicting the least recently used result when it is full.
+     */
+    private class Segment {
+
+        /**
+         * The cached results in access order.
+         */
+        private final LinkedHashMap<CanonicalForm, CachedResult> entries;
+
+        /**
+         * @param capacity The maximum amount of cached results of the segment.
+         */
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<CanonicalForm, CachedResult>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CanonicalForm, CachedResult> eldest) {
+                    if(size() <= capacity)
+                        return false;
+
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+
+        /**
+         * Gets a cached result and marks it as most recently used.
+         *
+         * @param form The canonical form of the sudoku.
+         *
+         * @return The cached result, null, if there is none.
+         */
+        private synchronized CachedResult get(CanonicalForm form) {
+            return entries.get(form);
+        }
+
+        /**
+         * Caches a result, evicting the least recently used one, if the segment is full.
+         *
+         * @param form   The canonical form of the sudoku.
+         * @param result The result.
+         */
+        private synchronized void put(CanonicalForm form, CachedResult result) {
+            entries.put(form, result);
+        }
+
+        /**
+         * Gets the amount of cached results of the segment.
+         *
+         * @return The amount of cached results.
+         */
+        private synchronized int size() {
+            return entries.size();
+        }
+
+        /**
+         * Removes all cached results of the segment.
+         */
+        private synchronized void clear() {
+            entries.clear();
+        }
+    }
+
+    /**
+     * A cached result in the orientation and labels of the canonical form.
+     */
+    private static class CachedResult {
+
+        /**
+         * The status of the solve.
+         */
+        private final SolveStatus status;
+
+        /**
+         * The solution of the canonical form, null, if there is none.
+         */
+        private final Grid solution;
+
+        private CachedResult(SolveStatus status, Grid solution) {
+            this.status = status;
+            this.solution = solution;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+/**
+ * Lets another thread stop running solves. A token can be shared by any amount of {@link SolveOptions}
+ * and stays cancelled once it has been cancelled. A token with a parent is also cancelled by its parent,
+ * so a single solve can be cancelled on its own or together with all solves sharing the parent.
+ */
+public class CancellationToken {
+
+    /**
+     * The token cancelling this token as well, null, if there is none.
+     */
+    private final CancellationToken parent;
+
+    /**
+     * Whether the token has been cancelled.
+     */
+    private volatile boolean cancelled;
+
+    public CancellationToken() {
+        this(null);
+    }
+
+    /**
+     * @param parent The token cancelling this token as well, null, if there is none.
+     */
+    public CancellationToken(CancellationToken parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Cancels the token. Every solve using it stops at its next check and returns {@link SolveStatus#ABORTED}.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks if the token or one of its parents has been cancelled.
+     *
+     * @return true, if the token has been cancelled, false, if otherwise.
+     */
+    public boolean isCancelled() {
+        return cancelled || parent != null && parent.isCancelled();
+    }
+}
@@ -0,0 +1,714 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Board;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Topology;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The canonical form of a square {@link Grid}: the smallest grid in row-major order among all grids
+ * the grid can be turned into without changing its solutions. These are relabeling the values,
+ * reordering the horizontal rows within a band of {@link Board}s and the bands themselves,
+ * reordering the vertical rows within a stack of boards and the stacks themselves, and transposing,
+ * if the boards are square. Empty fields are smaller than every value and values are relabeled in the order
+ * they first appear. Equivalent grids share their canonical form, which also knows how to map a grid
+ * in its orientation, e.g. a solution, back onto the original grid.
+ * <p>
+ * The search tries every order of the stacks and builds the horizontal rows one by one, dropping every prefix
+ * that is larger than the smallest grid found so far. The vertical rows within a stack are not enumerated:
+ * they are kept in groups whose order has not been decided yet, and every placed horizontal row splits the groups
+ * into its empty fields, its labeled values in ascending order and its new values, which is the smallest order.
+ * Only the order of new values within a group is tried in every way, as it decides their labels.
+ * Shapes with more than {@link #MAX_STACK_ORDERS} orders of stacks keep their stacks in place, and searches
+ * visiting more than {@link #MAX_ROW_VISITS} rows keep the smallest grid found so far. The form is still
+ * a valid representative then, equivalent grids are just not guaranteed to share it, see {@link #isExact()}.
+ */
+public class CanonicalForm {
+
+    /**
+     * The maximum amount of orders of stacks that are searched.
+     */
+    private static final int MAX_STACK_ORDERS = 1_000;
+
+    /**
+     * The maximum amount of horizontal rows visited by a search.
+     */
+    private static final long MAX_ROW_VISITS = 200_000;
+
+    /**
+     * The orders of the stacks by their amount, either all of them or only the identity.
+     */
+    private static final Map<Integer, int[][]> STACK_ORDERS = new ConcurrentHashMap<>();
+
+    /**
+     * The topology of the grid.
+     */
+    private final Topology topology;
+
+    /**
+     * The values of the canonical form in row-major order.
+     */
+    private final int[] values;
+
+    /**
+     * Whether the grid is transposed before it is reordered.
+     */
+    private final boolean transposed;
+
+    /**
+     * The horizontal row of the (transposed) grid every horizontal row of the canonical form is taken from.
+     */
+    private final int[] rowOrder;
+
+    /**
+     * The vertical row of the (transposed) grid every vertical row of the canonical form is taken from.
+     */
+    private final int[] columnOrder;
+
+    /**
+     * The value of the grid every label of the canonical form stands for, indexed by the label.
+     */
+    private final int[] originalValues;
+
+    /**
+     * Whether the search was exhaustive.
+     */
+    private final boolean exact;
+
+    /**
+     * The hash code of the values.
+     */
+    private final int hash;
+
+    private CanonicalForm(Topology topology, int[] values, boolean transposed, int[] rowOrder, int[] columnOrder,
+                          int[] originalValues, boolean exact) {
+        this.topology = topology;
+        this.values = values;
+        this.transposed = transposed;
+        this.rowOrder = rowOrder;
+        this.columnOrder = columnOrder;
+        this.originalValues = originalValues;
+        this.exact = exact;
+        this.hash = 31 * topology.hashCode() + Arrays.hashCode(values);
+    }
+
+    /**
+     * Computes the canonical form of a {@link Grid}.
+     *
+     * @param grid The grid.
+     *
+     * @return The canonical form of the grid.
+     */
+    public static CanonicalForm of(Grid grid) {
+        Topology topology = grid.getTopology();
+        int[][] stackOrders = STACK_ORDERS.computeIfAbsent(topology.getWidth(), CanonicalForm::createStackOrders);
+        Search search = new Search(topology);
+
+        search.run(grid, false, stackOrders);
+
+        if(topology.getBoardWidth() == topology.getBoardHeight())
+            search.run(grid, true, stackOrders);
+
+        return new CanonicalForm(topology, search.best, search.bestTransposed, search.bestRowOrder,
+                search.bestColumnOrder, search.getOriginalValues(),
+                !search.exhausted && (stackOrders.length > 1 || topology.getWidth() == 1));
+    }
+
+    /**
+     * Gets the canonical form as a {@link Grid}.
+     *
+     * @return A new grid containing the canonical form.
+     */
+    public Grid getGrid() {
+        Grid grid = new Grid(topology);
+
+        for(int fieldIndex = 0; fieldIndex < values.length; fieldIndex++)
+            grid.setValue(fieldIndex, values[fieldIndex]);
+
+        return grid;
+    }
+
+    /**
+     * Maps a {@link Grid} in the orientation and labels of the canonical form back onto the original grid,
+     * e.g. the solution of the canonical form onto the solution of the original grid.
+     *
+     * @param grid The grid in the orientation and labels of the canonical form.
+     *
+     * @return A new grid in the orientation and labels of the original grid.
+     *
+     * @throws IllegalArgumentException if the grid has a different topology
+     */
+    public Grid toOriginal(Grid grid) {
+        if(!grid.getTopology().equals(topology))
+            throw new IllegalArgumentException("The grid does not have the topology of the canonical form.");
+
+        int size = topology.getSize();
+        Grid original = new Grid(topology);
+
+        for(int y = 0; y < size; y++) {
+            for(int x = 0; x < size; x++) {
+                int row = rowOrder[y],
+                    column = columnOrder[x];
+
+                original.setValue(transposed ? row + column * size : column + row * size,
+                        originalValues[grid.getValue(x + y * size)]);
+            }
+        }
+
+        return original;
+    }
+
+    /**
+     * Gets the {@link Topology} of the grid.
+     *
+     * @return The topology of the grid.
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Checks if the search was exhaustive, so every equivalent grid is guaranteed to share this canonical form.
+     *
+     * @return true, if the search was exhaustive, false, if otherwise.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o)
+            return true;
+        if(!(o instanceof CanonicalForm))
+            return false;
+
+        CanonicalForm form = (CanonicalForm) o;
+
+        return hash == form.hash && topology.equals(form.topology) && Arrays.equals(values, form.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Creates the orders of a given amount of stacks, or only the identity, if there are more than
+     * {@link #MAX_STACK_ORDERS} of them.
+     *
+     * @param stacks The amount of stacks.
+     *
+     * @return The orders, each listing the original stack of every stack.
+     */
+    private static int[][] createStackOrders(int stacks) {
+        int[] order = new int[stacks];
+        double count = 1;
+
+        for(int i = 0; i < stacks; i++) {
+            order[i] = i;
+            count *= i + 1;
+        }
+
+        if(count > MAX_STACK_ORDERS)
+            return new int[][] {order};
+
+        List<int[]> orders = new ArrayList<>();
+
+        while(true) {
+            orders.add(order.clone());
+
+            int i = stacks - 2;
+
+            while(i >= 0 && order[i] > order[i + 1])
+                i--;
+
+            if(i < 0)
+                return orders.toArray(new int[0][]);
+
+            int j = stacks - 1;
+
+            while(order[j] < order[i])
+                j--;
+
+            swap(order, i, j);
+
+            for(int left = i + 1, right = stacks - 1; left < right; left++, right--)
+                swap(order, left, right);
+        }
+    }
+
+    /**
+     * Swaps two elements of an array.
+     *
+     * @param array The array.
+     * @param i     The index of the first element.
+     * @param j     The index of the second element.
+     */
+    private static void swap(int[] array, int i, int j) {
+        int element = array[i];
+
+        array[i] = array[j];
+        array[j] = element;
+    }
+
+    /**
+     * The search for the smallest grid, keeping the orders and labels of the grid being built.
+     */
+    private static class Search {
+
+        /**
+         * The side length, the width and height of the boards and the amount of bands.
+         */
+        private final int size, boardWidth, boardHeight, bands;
+
+        /**
+         * The values of the (transposed) grid in row-major order.
+         */
+        private final int[] source;
+
+        /**
+         * Whether a horizontal row of the (transposed) grid is empty.
+         */
+        private final boolean[] emptyRows;
+
+        /**
+         * The grid being built and the smallest grid found so far.
+         */
+        private final int[] current, best;
+
+        /**
+         * The horizontal rows the grid being built is taken from, and the ones of the smallest grid.
+         */
+        private final int[] rowOrder, bestRowOrder;
+
+        /**
+         * The band every band of the grid being built is taken from.
+         */
+        private final int[] bandOrder;
+
+        /**
+         * The horizontal rows and bands already used by the grid being built.
+         */
+        private final boolean[] usedRows, usedBands;
+
+        /**
+         * The vertical row every vertical row of the grid being built is taken from,
+         * saved before every horizontal row is placed.
+         */
+        private final int[][] columns;
+
+        /**
+         * Whether a vertical row starts a new group of vertical rows whose order has not been decided yet,
+         * saved before every horizontal row is placed.
+         */
+        private final boolean[][] groupStarts;
+
+        /**
+         * The key every vertical row is ordered by when placing a horizontal row: 0 for an empty field,
+         * the label of a labeled value and the side length plus 1 for a new value.
+         */
+        private final int[] keys;
+
+        /**
+         * The smallest horizontal row placed at every position and the horizontal rows of the (transposed) grid
+         * placed as it.
+         */
+        private final int[][] smallestRows, candidateRows;
+
+        /**
+         * The groups of new values of the horizontal row being placed, as pairs of the first and the last
+         * vertical row plus 1, saved for every horizontal row.
+         */
+        private final int[][] newGroups;
+        private final int[] newGroupCounts;
+
+        /**
+         * The label of every value of the grid, 0, if it has not been labeled yet, and the value of every label.
+         */
+        private final int[] labels, labeledValues, bestLabeledValues;
+
+        /**
+         * The label every new value of the horizontal row being placed gets, 0, if it has not appeared yet,
+         * so a value occurring more than once within the row keeps its label.
+         */
+        private final int[] newLabels;
+
+        /**
+         * Whether the grid is transposed, for the grid being built and the smallest grid.
+         */
+        private boolean transposed, bestTransposed;
+
+        /**
+         * The vertical row every vertical row of the smallest grid is taken from.
+         */
+        private final int[] bestColumnOrder;
+
+        /**
+         * The next label to be assigned.
+         */
+        private int nextLabel;
+
+        /**
+         * Whether a smallest grid has been found and how often it has been replaced.
+         */
+        private boolean hasBest;
+        private long bestVersion;
+
+        /**
+         * The amount of horizontal rows visited and whether the search was stopped because of it.
+         */
+        private long visits;
+        private boolean exhausted;
+
+        private Search(Topology topology) {
+            this.size = topology.getSize();
+            this.boardWidth = topology.getBoardWidth();
+            this.boardHeight = topology.getBoardHeight();
+            this.bands = size / boardHeight;
+            this.source = new int[size * size];
+            this.emptyRows = new boolean[size];
+            this.current = new int[size * size];
+            this.best = new int[size * size];
+            this.rowOrder = new int[size];
+            this.bestRowOrder = new int[size];
+            this.bandOrder = new int[bands];
+            this.usedRows = new boolean[size];
+            this.usedBands = new boolean[bands];
+            this.columns = new int[size + 1][size];
+            this.groupStarts = new boolean[size + 1][size];
+            this.keys = new int[size];
+            this.smallestRows = new int[size][size];
+            this.candidateRows = new int[size][size];
+            this.newGroups = new int[size][2 * size];
+            this.newGroupCounts = new int[size];
+            this.labels = new int[size + 1];
+            this.labeledValues = new int[size + 1];
+            this.bestLabeledValues = new int[size + 1];
+            this.newLabels = new int[size + 1];
+            this.bestColumnOrder = new int[size];
+            this.nextLabel = 1;
+        }
+
+        /**
+         * Searches all orders of a grid, either transposed or not.
+         *
+         * @param grid        The grid.
+         * @param transposed  Whether the grid is transposed.
+         * @param stackOrders The orders of the stacks to be searched.
+         */
+        private void run(Grid grid, boolean transposed, int[][] stackOrders) {
+            this.transposed = transposed;
+
+            for(int y = 0; y < size; y++) {
+                emptyRows[y] = true;
+
+                for(int x = 0; x < size; x++) {
+                    int value = transposed ? grid.getValue(y + x * size) : grid.getValue(x + y * size);
+
+                    source[x + y * size] = value;
+                    emptyRows[y] &= value == 0;
+                }
+            }
+
+            for(int[] stackOrder : stackOrders) {
+                for(int x = 0; x < size; x++) {
+                    columns[0][x] = stackOrder[x / boardWidth] * boardWidth + x % boardWidth;
+                    groupStarts[0][x] = x % boardWidth == 0;
+                }
+
+                search(0, hasBest);
+
+                if(exhausted)
+                    return;
+            }
+        }
+
+        /**
+         * Places every possible horizontal row at a position of the grid being built and searches the rest.
+         * All rows are placed once to find the smallest one, and only the rows placed as the smallest one
+         * are searched further, unless they are larger than the row of the smallest grid found so far.
+         *
+         * @param position The position of the horizontal row.
+         * @param equal    Whether the rows placed so far are equal to the ones of the smallest grid.
+         */
+        private void search(int position, boolean equal) {
+            if(position == size) {
+                if(!equal)
+                    saveBest();
+
+                return;
+            }
+
+            int[] smallest = smallestRows[position],
+                  candidates = candidateRows[position];
+            int band = position / boardHeight,
+                firstBand = position % boardHeight == 0 ? 0 : bandOrder[band],
+                lastBand = position % boardHeight == 0 ? bands - 1 : bandOrder[band],
+                candidateCount = 0;
+            boolean belowBest = !equal || !hasBest;
+
+            for(int sourceBand = firstBand; sourceBand <= lastBand; sourceBand++) {
+                if(position % boardHeight == 0 && usedBands[sourceBand])
+                    continue;
+
+                boolean triedEmptyRow = false;
+
+                for(int row = sourceBand * boardHeight; row < (sourceBand + 1) * boardHeight; row++) {
+                    if(usedRows[row] || emptyRows[row] && triedEmptyRow)
+                        continue;
+
+                    if(hasBest && ++visits > MAX_ROW_VISITS) {
+                        exhausted = true;
+                        return;
+                    }
+
+                    triedEmptyRow |= emptyRows[row];
+
+                    int comparison = candidateCount > 0 ? placeRow(position, row, smallest, 0)
+                            : placeRow(position, row, belowBest ? null : best, position * size);
+
+                    if(comparison > 0)
+                        continue;
+
+                    if(candidateCount == 0 || comparison < 0) {
+                        System.arraycopy(current, position * size, smallest, 0, size);
+                        belowBest |= comparison < 0;
+                        candidateCount = 0;
+                    }
+
+                    candidates[candidateCount++] = row;
+                }
+            }
+
+            for(int i = 0; i < candidateCount && !exhausted; i++) {
+                int row = candidates[i],
+                    sourceBand = row / boardHeight;
+                long version = bestVersion;
+
+                placeRow(position, row, null, 0);
+                usedRows[row] = true;
+                usedBands[sourceBand] = true;
+                rowOrder[position] = row;
+                bandOrder[band] = sourceBand;
+
+                orderNewValues(position, row, 0, !belowBest);
+
+                usedRows[row] = false;
+                usedBands[sourceBand] = position % boardHeight != 0;
+
+                if(bestVersion != version)
+                    belowBest = false;
+            }
+        }
+
+        /**
+         * Places a horizontal row of the (transposed) grid in the grid being built. The groups of vertical rows
+         * are split and ordered, so the row becomes as small as possible: empty fields first, then the labeled
+         * values in ascending order, then the new values, which get the next labels in the order they appear.
+         *
+         * @param position The position of the horizontal row.
+         * @param row      The horizontal row of the (transposed) grid.
+         * @param target   The array containing the row the placed row is compared with, null, if it is not compared.
+         * @param offset   The index of the row within the array.
+         *
+         * @return A negative number, if the row is smaller than the compared one, 0, if it is equal or not compared,
+         *         a positive number, if it is larger, in which case it is not placed completely.
+         */
+        private int placeRow(int position, int row, int[] target, int offset) {
+            int[] rowColumns = columns[position + 1],
+                  groups = newGroups[position];
+            boolean[] rowGroupStarts = groupStarts[position + 1];
+            int comparison = 0,
+                groupCount = 0,
+                label = nextLabel;
+
+            System.arraycopy(columns[position], 0, rowColumns, 0, size);
+
+            for(int column = 0; column < size; column++) {
+                int value = source[column + row * size];
+
+                keys[column] = value == 0 ? 0 : labels[value] != 0 ? labels[value] : size + 1;
+                newLabels[value] = 0;
+            }
+
+            for(int start = 0; start < size; ) {
+                int end = start + 1;
+
+                while(end < size && !groupStarts[position][end])
+                    end++;
+
+                for(int i = start + 1; i < end; i++) {
+                    int column = rowColumns[i],
+                        key = keys[column],
+                        j = i - 1;
+
+                    for(; j >= start && keys[rowColumns[j]] > key; j--)
+                        rowColumns[j + 1] = rowColumns[j];
+
+                    rowColumns[j + 1] = column;
+                }
+
+                for(int x = start; x < end; x++) {
+                    int key = keys[rowColumns[x]],
+                        cell = key;
+
+                    if(key > size) {
+                        int value = source[rowColumns[x] + row * size];
+
+                        if(newLabels[value] == 0)
+                            newLabels[value] = label++;
+
+                        cell = newLabels[value];
+                    }
+
+                    rowGroupStarts[x] = x == start || key != keys[rowColumns[x - 1]] || key != 0 && key <= size;
+                    current[x + position * size] = cell;
+
+                    if(target != null && comparison == 0) {
+                        comparison = Integer.compare(cell, target[offset + x]);
+
+                        if(comparison > 0)
+                            return comparison;
+                    }
+                }
+
+                if(end - start > 1 && keys[rowColumns[end - 2]] == size + 1) {
+                    int groupStart = end - 2;
+
+                    while(groupStart > start && keys[rowColumns[groupStart - 1]] == size + 1)
+                        groupStart--;
+
+                    groups[2 * groupCount] = groupStart;
+                    groups[2 * groupCount + 1] = end;
+                    groupCount++;
+                }
+
+                start = end;
+            }
+
+            newGroupCounts[position] = groupCount;
+            return comparison;
+        }
+
+        /**
+         * Tries every order of the new values within the groups of a placed horizontal row, labels them
+         * and searches the rest. The placed row itself does not depend on the order, unless a new value
+         * occurs more than once within it, so the row is placed again with the labels of the order.
+         *
+         * @param position The position of the horizontal row.
+         * @param row      The horizontal row of the (transposed) grid.
+         * @param group    The group of new values to be ordered next.
+         * @param equal    Whether the rows placed so far are equal to the ones of the smallest grid.
+         */
+        private void orderNewValues(int position, int row, int group, boolean equal) {
+            if(group == newGroupCounts[position]) {
+                int firstLabel = nextLabel;
+                int[] rowColumns = columns[position + 1];
+
+                for(int x = 0; x < size; x++) {
+                    int value = source[rowColumns[x] + row * size];
+
+                    if(value != 0 && labels[value] == 0) {
+                        labels[value] = nextLabel;
+                        labeledValues[nextLabel++] = value;
+                    }
+
+                    current[x + position * size] = labels[value];
+                }
+
+                search(position + 1, equal);
+
+                while(nextLabel > firstLabel)
+                    labels[labeledValues[--nextLabel]] = 0;
+
+                return;
+            }
+
+            int start = newGroups[position][2 * group],
+                end = newGroups[position][2 * group + 1];
+
+            for(int x = start + 1; x < end; x++)
+                groupStarts[position + 1][x] = true;
+
+            permute(position, row, group, start, end, equal);
+        }
+
+        /**
+         * Tries every order of the vertical rows of a group from a given vertical row on.
+         *
+         * @param position The position of the horizontal row.
+         * @param row      The horizontal row of the (transposed) grid.
+         * @param group    The group of new values being ordered.
+         * @param from     The first vertical row whose order has not been decided yet.
+         * @param end      The last vertical row of the group plus 1.
+         * @param equal    Whether the rows placed so far are equal to the ones of the smallest grid.
+         */
+        private void permute(int position, int row, int group, int from, int end, boolean equal) {
+            if(from >= end - 1) {
+                orderNewValues(position, row, group + 1, equal);
+                return;
+            }
+
+            int[] rowColumns = columns[position + 1];
+
+            for(int x = from; x < end && !exhausted; x++) {
+                long version = bestVersion;
+
+                swap(rowColumns, from, x);
+                permute(position, row, group, from + 1, end, equal);
+                swap(rowColumns, from, x);
+
+                if(bestVersion != version)
+                    equal = true;
+            }
+        }
+
+        /**
+         * Replaces the smallest grid by the grid being built.
+         */
+        private void saveBest() {
+            System.arraycopy(current, 0, best, 0, current.length);
+            System.arraycopy(rowOrder, 0, bestRowOrder, 0, size);
+            System.arraycopy(columns[size], 0, bestColumnOrder, 0, size);
+            System.arraycopy(labeledValues, 0, bestLabeledValues, 0, labeledValues.length);
+            Arrays.fill(bestLabeledValues, nextLabel, bestLabeledValues.length, 0);
+            bestTransposed = transposed;
+            hasBest = true;
+            bestVersion++;
+        }
+
+        /**
+         * Gets the value of the grid every label of the smallest grid stands for. Values not occurring in the grid
+         * get the remaining labels in ascending order, so the labels of a solution can be mapped back, too.
+         *
+         * @return The values indexed by their label, 0 standing for empty fields.
+         */
+        private int[] getOriginalValues() {
+            int[] originalValues = bestLabeledValues.clone();
+            boolean[] labeled = new boolean[size + 1];
+            int label = 1;
+
+            while(label <= size && originalValues[label] != 0)
+                labeled[originalValues[label++]] = true;
+
+            for(int value = 1; value <= size; value++) {
+                if(!labeled[value])
+                    originalValues[label++] = value;
+            }
+
+            return originalValues;
+        }
+    }
+}
@@ -0,0 +1,599 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Board;
+import de.alphaconqueror.sudokusolver.structure.Field;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+import de.alphaconqueror.sudokusolver.structure.Topology;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Solves sudokus as an exact cover problem using Knuth's Algorithm X with dancing links.
+ * Every matrix row places one value at one {@link Field} and covers four constraints:
+ * the field has a value, and the value is used once in its horizontal row, its vertical row and its {@link Board}.
+ * The matrix is built once per {@link Topology} and restored after every solve,
+ * so a solver can be reused for any amount of sudokus of the same shape. A solver is not thread-safe.
+ */
+public class DancingLinksSolver {
+
+    /**
+     * The index of the root node, which links all uncovered column headers.
+     */
+    private static final int ROOT = 0;
+
+    /**
+     * The {@link Topology} of the solved {@link Grid}s.
+     */
+    private final Topology topology;
+
+    /**
+     * The side length of the grids in amount of {@link Field}s, which equals the amount of possible values.
+     */
+    private final int size;
+
+    /**
+     * The links of every node. Nodes [1, columnCount] are the column headers, followed by four nodes per matrix row.
+     */
+    private final int[] left, right, up, down;
+
+    /**
+     * The column header of every node.
+     */
+    private final int[] columns;
+
+    /**
+     * The amount of nodes currently linked into every column, indexed by the column header.
+     */
+    private final int[] columnSizes;
+
+    /**
+     * The first node of every matrix row, which is the node covering the {@link Field} constraint.
+     */
+    private final int[] rowNodes;
+
+    /**
+     * The nodes of the rows selected for the givens and by the search, in selection order.
+     */
+    private final int[] selectedNodes;
+
+    /**
+     * The values of the last solution found, in row-major order.
+     */
+    private final int[] solution;
+
+    /**
+     * The amount of solutions after which the search stops, 1, unless solutions are counted,
+     * and the amount of solutions found by the current search.
+     */
+    private long solutionLimit, solutionCount;
+
+    /**
+     * The first solutions found while counting, at most {@link #maxSolutions}, null, if solutions are not counted.
+     */
+    private List<Grid> solutions;
+    private int maxSolutions;
+
+    /**
+     * The statistics of the last solve.
+     */
+    private SolveStatistics statistics = new SolveStatistics();
+
+    public DancingLinksSolver(Topology topology) {
+        this.topology = topology;
+        this.size = topology.getSize();
+
+        int fieldCount = topology.getFieldCount(),
+            columnCount = 4 * fieldCount,
+            rowCount = fieldCount * size,
+            nodeCount = 1 + columnCount + 4 * rowCount;
+
+        this.left = new int[nodeCount];
+        this.right = new int[nodeCount];
+        this.up = new int[nodeCount];
+        this.down = new int[nodeCount];
+        this.columns = new int[nodeCount];
+        this.columnSizes = new int[1 + columnCount];
+        this.rowNodes = new int[rowCount];
+        this.selectedNodes = new int[fieldCount];
+        this.solution = new int[fieldCount];
+
+        initColumns(columnCount);
+        initRows();
+    }
+
+    /**
+     * Links the column headers to the root node.
+     *
+     * @param columnCount The amount of columns.
+     */
+    private void initColumns(int columnCount) {
+        for(int node = 0; node <= columnCount; node++) {
+            left[node] = node == 0 ? columnCount : node - 1;
+            right[node] = node == columnCount ? 0 : node + 1;
+            up[node] = node;
+            down[node] = node;
+            columns[node] = node;
+        }
+    }
+
+    /**
+     * Links four nodes for every possible value of every {@link Field}.
+     */
+    private void initRows() {
+        int fieldCount = topology.getFieldCount(),
+            node = 1 + 4 * fieldCount;
+
+        for(int fieldIndex = 0; fieldIndex < fieldCount; fieldIndex++) {
+            int horizontalRow = topology.getHorizontalRowIndex(fieldIndex),
+                verticalRow = topology.getVerticalRowIndex(fieldIndex),
+                board = topology.getBoardIndex(fieldIndex);
+
+            for(int value = 0; value < size; value++) {
+                int first = node;
+
+                rowNodes[fieldIndex * size + value] = first;
+                appendNode(node++, 1 + fieldIndex);
+                appendNode(node++, 1 + fieldCount + horizontalRow * size + value);
+                appendNode(node++, 1 + 2 * fieldCount + verticalRow * size + value);
+                appendNode(node++, 1 + 3 * fieldCount + board * size + value);
+
+                for(int i = first; i < node; i++) {
+                    left[i] = i == first ? node - 1 : i - 1;
+                    right[i] = i == node - 1 ? first : i + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends a node to the bottom of a column.
+     *
+     * @param node   The node to be appended.
+     * @param column The column header.
+     */
+    private void appendNode(int node, int column) {
+        columns[node] = column;
+        up[node] = up[column];
+        down[node] = column;
+        down[up[column]] = node;
+        up[column] = node;
+        columnSizes[column]++;
+    }
+
+    /**
+     * Solves the given {@link Sudoku}.
+     *
+     * @param sudoku The sudoku to be solved.
+     *
+     * @return The solved sudoku.
+     *
+     * @throws IllegalArgumentException      if the sudoku does not match the topology of this solver
+     * @throws UnsupportedOperationException if the sudoku is not solvable
+     */
+    public Sudoku solveSudoku(Sudoku sudoku) {
+        if(solve(Grid.fromSudoku(sudoku, topology)) != SolveStatus.SOLVED)
+            throw new UnsupportedOperationException("Solving not possible.");
+
+        return writeSudoku(sudoku);
+    }
+
+    /**
+     * Solves the given {@link Grid}. The grid itself is not modified,
+     * the solution can be written using {@link #writeGrid(Grid)} or {@link #writeSudoku(Sudoku)}.
+     *
+     * @param grid The grid to be solved.
+     *
+     * @return {@link SolveStatus#SOLVED}, if a solution was found,
+     *         {@link SolveStatus#UNSOLVABLE}, if the grid is not solvable.
+     *
+     * @throws IllegalArgumentException if the grid does not match the topology of this solver
+     */
+    public SolveStatus solve(Grid grid) {
+        return solve(grid, SolveOptions.NONE);
+    }
+
+    /**
+     * Solves the given {@link Grid} within the limits of the given {@link SolveOptions}, see {@link #solve(Grid)}.
+     * A stopped search restores the matrix before returning, so the solver can be reused right away.
+     *
+     * @param grid    The grid to be solved.
+     * @param options The limits of the solve.
+     *
+     * @return {@link SolveStatus#SOLVED}, if a solution was found,
+     *         {@link SolveStatus#UNSOLVABLE}, if the grid is not solvable,
+     *         {@link SolveStatus#TIMEOUT} or {@link SolveStatus#ABORTED}, if the search was stopped by the options.
+     *
+     * @throws IllegalArgumentException if the grid does not match the topology of this solver
+     */
+    public SolveStatus solve(Grid grid, SolveOptions options) {
+        solutionLimit = 1;
+        solutions = null;
+
+        return run(grid, options);
+    }
+
+    /**
+     * Counts the solutions of the given {@link Grid}. Instead of stopping at the first solution,
+     * the search continues until all solutions have been found or the limit is reached,
+     * reusing the matrix like {@link #solve(Grid)}. The grid itself is not modified.
+     *
+     * @param grid         The grid to be counted.
+     * @param limit        The amount of solutions after which the counting stops, 2 to check for uniqueness.
+     * @param maxSolutions The maximum amount of solutions to be kept.
+     *
+     * @return The amount of solutions found and the first solutions.
+     *
+     * @throws IllegalArgumentException if the grid does not match the topology of this solver
+     * @throws IllegalArgumentException if the limit is smaller than 1 or the maximum amount of solutions is negative
+     */
+    public SolutionCount countSolutions(Grid grid, long limit, int maxSolutions) {
+        if(limit < 1)
+            throw new IllegalArgumentException("The limit has to be at least 1.");
+        if(maxSolutions < 0)
+            throw new IllegalArgumentException("The maximum amount of solutions can not be negative.");
+
+        List<Grid> found = new ArrayList<>();
+
+        solutionLimit = limit;
+        solutions = found;
+        this.maxSolutions = maxSolutions;
+
+        try {
+            run(grid, SolveOptions.NONE);
+        } finally {
+            solutions = null;
+        }
+
+        return new SolutionCount(solutionCount, limit, found);
+    }
+
+    /**
+     * Searches the solutions of a {@link Grid} until the solution limit is reached.
+     *
+     * @param grid    The grid to be searched.
+     * @param options The limits of the search.
+     *
+     * @return {@link SolveStatus#SOLVED}, if a solution was found,
+     *         {@link SolveStatus#UNSOLVABLE}, if the grid is not solvable,
+     *         {@link SolveStatus#TIMEOUT} or {@link SolveStatus#ABORTED}, if the search was stopped by the options.
+     *
+     * @throws IllegalArgumentException if the grid does not match the topology of this solver
+     */
+    private SolveStatus run(Grid grid, SolveOptions options) {
+        if(grid.getTopology().getBoardWidth() != topology.getBoardWidth()
+                || grid.getTopology().getBoardHeight() != topology.getBoardHeight())
+            throw new IllegalArgumentException("The grid does not match the topology of the solver.");
+
+        statistics = new SolveStatistics();
+        solutionCount = 0;
+
+        boolean timed = SolveStatistics.isEnabled();
+        long start = timed ? System.nanoTime() : 0;
+        int givens = selectGivens(grid);
+        SolveStatus status = givens < 0 ? SolveStatus.UNSOLVABLE : search(givens, options);
+
+        if(timed)
+            statistics.searchNanos = System.nanoTime() - start;
+
+        for(int i = Math.abs(givens) - 1; i >= 0; i--)
+            unselectRow(selectedNodes[i]);
+
+        return status;
+    }
+
+    /**
+     * Selects the matrix rows of all values of the {@link Grid}.
+     *
+     * @param grid The grid to be read.
+     *
+     * @return The amount of selected rows, or its negation, if a value conflicts with a previously selected one.
+     */
+    private int selectGivens(Grid grid) {
+        int selected = 0;
+
+        for(int fieldIndex = 0; fieldIndex < topology.getFieldCount(); fieldIndex++) {
+            int value = grid.getValue(fieldIndex);
+
+            if(value == 0)
+                continue;
+
+            int node = rowNodes[fieldIndex * size + value - 1];
+
+            if(isRowCovered(node))
+                return -selected;
+
+            selectRow(node);
+            selectedNodes[selected++] = node;
+        }
+
+        return selected;
+    }
+
+    /**
+     * Searches for sets of rows covering every column exactly once, always branching on the column with the least
+     * nodes, until the solution limit is reached. The search keeps its decisions on the selected nodes
+     * instead of recursing and restores the matrix to the state after selecting the givens before returning.
+     * The options are checked before every selected row, stopping the search unwinds it like a found solution.
+     *
+     * @param givens  The amount of rows selected for the givens.
+     * @param options The limits of the search.
+     *
+     * @return {@link SolveStatus#SOLVED}, if a solution was found,
+     *         {@link SolveStatus#UNSOLVABLE}, if there is no solution,
+     *         {@link SolveStatus#TIMEOUT} or {@link SolveStatus#ABORTED}, if the search was stopped by the options.
+     */
+    private SolveStatus search(int givens, SolveOptions options) {
+        int depth = givens;
+        long guesses = 0;
+        boolean stopped = false;
+        SolveStatus stopStatus = null;
+
+        while(true) {
+            int node;
+
+            if(right[ROOT] == ROOT) {
+                stopped = countSolution();
+                node = -1;
+            } else if((stopStatus = options.check(guesses)) != null) {
+                stopped = true;
+                node = -1;
+            } else {
+                int column = chooseColumn();
+
+                if(columnSizes[column] > 0) {
+                    cover(column);
+                    node = down[column];
+                } else
+                    node = -1;
+            }
+
+            if(node >= 0) {
+                selectedNodes[depth++] = node;
+                guesses++;
+                statistics.countGuess(depth - givens);
+
+                for(int j = right[node]; j != node; j = right[j])
+                    cover(columns[j]);
+
+                continue;
+            }
+
+            while(true) {
+                if(depth == givens) {
+                    if(solutionCount > 0)
+                        return SolveStatus.SOLVED;
+
+                    return stopStatus != null ? stopStatus : SolveStatus.UNSOLVABLE;
+                }
+
+                int previous = selectedNodes[--depth],
+                    column = columns[previous];
+
+                if(!stopped)
+                    statistics.backtracks++;
+
+                for(int j = left[previous]; j != previous; j = left[j])
+                    uncover(columns[j]);
+
+                if(stopped) {
+                    uncover(column);
+                    continue;
+                }
+
+                int next = down[previous];
+
+                if(next != column) {
+                    selectedNodes[depth++] = next;
+                    guesses++;
+                    statistics.countGuess(depth - givens);
+
+                    for(int j = right[next]; j != next; j = right[j])
+                        cover(columns[j]);
+
+                    break;
+                }
+
+                uncover(column);
+                statistics.backtrackedLevels++;
+            }
+        }
+    }
+
+    /**
+     * Reads the solution of the selected rows, counts it and keeps a copy of it,
+     * if solutions are counted and not enough solutions have been kept yet.
+     *
+     * @return true, if the search should stop, false, if it should continue with the next row.
+     */
+    private boolean countSolution() {
+        for(int i = 0; i < solution.length; i++) {
+            int row = rowIndex(selectedNodes[i]);
+
+            solution[row / size] = row % size + 1;
+        }
+
+        solutionCount++;
+
+        if(solutions != null && solutions.size() < maxSolutions)
+            solutions.add(writeGrid(new Grid(topology)));
+
+        return solutionCount >= solutionLimit;
+    }
+
+    /**
+     * Gets the uncovered column with the least nodes.
+     *
+     * @return The column header of the column with the least nodes.
+     */
+    private int chooseColumn() {
+        int best = right[ROOT], bestSize = columnSizes[best];
+
+        for(int column = right[best]; column != ROOT && bestSize > 1; column = right[column]) {
+            statistics.candidateEvaluations++;
+
+            if(columnSizes[column] < bestSize) {
+                best = column;
+                bestSize = columnSizes[column];
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Removes a column from the header list and all rows intersecting it from their other columns.
+     *
+     * @param column The column header.
+     */
+    private void cover(int column) {
+        right[left[column]] = right[column];
+        left[right[column]] = left[column];
+
+        for(int i = down[column]; i != column; i = down[i]) {
+            for(int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                columnSizes[columns[j]]--;
+            }
+        }
+    }
+
+    /**
+     * Reverts {@link #cover(int)}.
+     *
+     * @param column The column header.
+     */
+    private void uncover(int column) {
+        for(int i = up[column]; i != column; i = up[i]) {
+            for(int j = left[i]; j != i; j = left[j]) {
+                columnSizes[columns[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+
+        right[left[column]] = column;
+        left[right[column]] = column;
+    }
+
+    /**
+     * Covers every column of a matrix row.
+     *
+     * @param node The first node of the row.
+     */
+    private void selectRow(int node) {
+        int j = node;
+
+        do {
+            cover(columns[j]);
+            j = right[j];
+        } while(j != node);
+    }
+
+    /**
+     * Reverts {@link #selectRow(int)}.
+     *
+     * @param node The first node of the row.
+     */
+    private void unselectRow(int node) {
+        int j = left[node];
+
+        do {
+            uncover(columns[j]);
+            j = left[j];
+        } while(j != left[node]);
+    }
+
+    /**
+     * Checks if any column of a matrix row has already been covered.
+     *
+     * @param node The first node of the row.
+     *
+     * @return true, if a column of the row is covered, false, if otherwise.
+     */
+    private boolean isRowCovered(int node) {
+        int j = node;
+
+        do {
+            int column = columns[j];
+
+            if(right[left[column]] != column)
+                return true;
+
+            j = right[j];
+        } while(j != node);
+
+        return false;
+    }
+
+    /**
+     * Gets the index of the matrix row of a node, which is {@code fieldIndex * size + value - 1}.
+     *
+     * @param node The node.
+     *
+     * @return The index of the matrix row.
+     */
+    private int rowIndex(int node) {
+        return (node - 1 - 4 * topology.getFieldCount()) / 4;
+    }
+
+    /**
+     * Writes the last solution found to the {@link Grid}.
+     *
+     * @param grid The grid to be written.
+     *
+     * @return The written grid.
+     */
+    public Grid writeGrid(Grid grid) {
+        for(int fieldIndex = 0; fieldIndex < solution.length; fieldIndex++)
+            grid.setValue(fieldIndex, solution[fieldIndex]);
+
+        return grid;
+    }
+
+    /**
+     * Writes the last solution found to the {@link Field}s of the {@link Sudoku} that do not have a value yet.
+     *
+     * @param sudoku The sudoku to be written.
+     *
+     * @return The written sudoku.
+     */
+    public Sudoku writeSudoku(Sudoku sudoku) {
+        for(int fieldIndex = 0; fieldIndex < solution.length; fieldIndex++) {
+            int x = fieldIndex % size,
+                y = fieldIndex / size;
+
+            if(!sudoku.getFieldAt(x, y).hasValue())
+                sudoku.setFieldValueAt(x, y, solution[fieldIndex]);
+        }
+
+        return sudoku;
+    }
+
+    /**
+     * Gets the statistics of the last solve. Every row selected by the search counts as a guess,
+     * every column compared while choosing the next column as a candidate evaluation.
+     *
+     * @return The statistics of the last solve.
+     */
+    public SolveStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Gets the {@link Topology} of the grids this solver solves.
+     *
+     * @return The topology of the solver.
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+import de.alphaconqueror.sudokusolver.structure.Topology;
+
+public class DancingLinksStrategy implements SolverStrategy {
+
+    /**
+     * The last {@link DancingLinksSolver} used by every thread,
+     * reused as long as the thread keeps solving sudokus of the same shape.
+     */
+    private final ThreadLocal<DancingLinksSolver> solvers = new ThreadLocal<>();
+
+    @Override
+    public SolveResult solve(Sudoku sudoku, SolveOptions options) {
+        DancingLinksSolver solver = getSolver(sudoku.getBoardWidth(), sudoku.getBoardHeight());
+        Grid grid = Grid.fromSudoku(sudoku, solver.getTopology());
+        SolveStatus status = solver.solve(grid, options);
+
+        if(status != SolveStatus.SOLVED)
+            return SolveResult.of(status, solver.getStatistics());
+
+        return new SolveResult(status, solver.writeGrid(grid).toSudoku(), solver.getStatistics());
+    }
+
+    /**
+     * Gets the {@link DancingLinksSolver} of the current thread for the given board dimensions.
+     *
+     * @param boardWidth  The width of the boards in amount of fields.
+     * @param boardHeight The height of the boards in amount of fields.
+     *
+     * @return The solver for sudokus with the given board dimensions.
+     */
+    private DancingLinksSolver getSolver(int boardWidth, int boardHeight) {
+        DancingLinksSolver solver = solvers.get();
+
+        if(solver == null || solver.getTopology().getBoardWidth() != boardWidth
+                || solver.getTopology().getBoardHeight() != boardHeight) {
+            solver = new DancingLinksSolver(Topology.of(boardWidth, boardHeight));
+            solvers.set(solver);
+        }
+
+        return solver;
+    }
+}
@@ -0,0 +1,706 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Board;
+import de.alphaconqueror.sudokusolver.structure.Field;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Topology;
+
+/**
+ * Rates the difficulty of sudokus by solving them like a human would: every step uses the easiest {@link Technique}
+ * that makes progress, starting over with the easiest one afterwards. If no technique makes progress anymore,
+ * the rest is searched by the {@link BitmaskSolver}, whose amount of guesses measures the size of the search tree.
+ * The candidates of all {@link Field}s are kept as bitmasks, so only square sudokus with at most
+ * {@value BitmaskSolver#MAX_SIZE} possible values per field can be rated.
+ * Raters keep no state between sudokus, so one rater can be used by many threads at once.
+ */
+public class DifficultyRater {
+
+    /**
+     * The techniques in the order they are tried.
+     */
+    private static final Technique[] TECHNIQUES = Technique.values();
+
+    /**
+     * Rates a sudoku.
+     *
+     * @param grid The sudoku to be rated.
+     *
+     * @return The rating of the sudoku.
+     *
+     * @throws IllegalArgumentException if the sudoku is not square or has too many possible values per field
+     */
+    public DifficultyRating rate(Grid grid) {
+        Topology topology = grid.getTopology();
+
+        if(!topology.isSquare() || topology.getSize() > BitmaskSolver.MAX_SIZE)
+            throw new IllegalArgumentException("Only square sudokus with at most " + BitmaskSolver.MAX_SIZE
+                    + " possible values per field can be rated.");
+
+        return new Ladder(grid).rate();
+    }
+
+    /**
+     * Searches subsets of masks whose union has as many bits as the subset has members.
+     */
+    private interface SubsetAction {
+
+        /**
+         * Applies the technique to a subset found.
+         *
+         * @param members The bitmask of the indexes of the masks in the subset.
+         * @param union   The union of the masks in the subset.
+         *
+         * @return true, if the technique made progress, false, if otherwise.
+         */
+        boolean apply(long members, long union);
+    }
+
+    /**
+     * The state of a single sudoku being rated.
+     */
+    private static class Ladder {
+
+        /**
+         * The {@link Topology} of the sudoku.
+         */
+        private final Topology topology;
+
+        /**
+         * The side length of the sudoku, which equals the amount of possible values.
+         */
+        private final int size;
+
+        /**
+         * The values of all {@link Field}s in row-major order.
+         */
+        private final int[] values;
+
+        /**
+         * The bitmasks of the candidates of every unsolved {@link Field}, 0 for solved fields.
+         * The value v is represented by the bit (v - 1).
+         */
+        private final long[] candidates;
+
+        /**
+         * The bitmasks used to search subsets, one per member.
+         */
+        private final long[] masks;
+
+        /**
+         * The amount of times every technique was used, indexed by its ordinal.
+         */
+        private final long[] steps = new long[TECHNIQUES.length];
+
+        /**
+         * The amount of unsolved {@link Field}s.
+         */
+        private int unsolvedFields;
+
+        /**
+         * False, if a {@link Field} was left without candidates or a value without a place within a unit.
+         */
+        private boolean consistent = true;
+
+        private Ladder(Grid grid) {
+            this.topology = grid.getTopology();
+            this.size = topology.getSize();
+            this.values = new int[topology.getFieldCount()];
+            this.candidates = new long[values.length];
+            this.masks = new long[size];
+            this.unsolvedFields = values.length;
+
+            long allValues = size == Long.SIZE ? -1L : (1L << size) - 1;
+
+            for(int fieldIndex = 0; fieldIndex < values.length; fieldIndex++)
+                candidates[fieldIndex] = allValues;
+
+            for(int fieldIndex = 0; fieldIndex < values.length; fieldIndex++) {
+                int value = grid.getValue(fieldIndex);
+
+                if(value == 0)
+                    continue;
+
+                if((candidates[fieldIndex] & getBit(value)) == 0)
+                    consistent = false;
+
+                place(fieldIndex, value);
+            }
+        }
+
+        /**
+         * Solves the sudoku using the techniques and searches the rest, if they do not suffice.
+         *
+         * @return The rating of the sudoku.
+         */
+        private DifficultyRating rate() {
+            Technique hardest = null;
+
+            while(consistent && unsolvedFields > 0) {
+                Technique technique = applyEasiest();
+
+                if(technique == null)
+                    break;
+
+                steps[technique.ordinal()]++;
+
+                if(hardest == null || technique.compareTo(hardest) > 0)
+                    hardest = technique;
+            }
+
+            if(!consistent)
+                return new DifficultyRating(SolveStatus.UNSOLVABLE, hardest, steps, 0);
+
+            if(unsolvedFields == 0)
+                return new DifficultyRating(SolveStatus.SOLVED, hardest, steps, 0);
+
+            Grid grid = new Grid(topology);
+
+            for(int fieldIndex = 0; fieldIndex < values.length; fieldIndex++)
+                grid.setValue(fieldIndex, values[fieldIndex]);
+
+            BitmaskSolver solver = new BitmaskSolver(grid);
+            SolveStatus status = solver.solve();
+
+            steps[Technique.GUESSING.ordinal()]++;
+
+            return new DifficultyRating(status, Technique.GUESSING, steps, solver.getStatistics().getGuesses());
+        }
+
+        /**
+         * Applies the easiest {@link Technique} that makes progress once.
+         *
+         * @return The applied technique, null, if none made progress.
+         */
+        private Technique applyEasiest() {
+            for(Technique technique : TECHNIQUES) {
+                if(apply(technique))
+                    return technique;
+            }
+
+            return null;
+        }
+
+        /**
+         * Applies a {@link Technique} once.
+         *
+         * @param technique The technique to be applied.
+         *
+         * @return true, if the technique made progress, false, if otherwise.
+         */
+        private boolean apply(Technique technique) {
+            switch(technique) {
+                case NAKED_SINGLE:
+                    return placeNakedSingle();
+                case HIDDEN_SINGLE:
+                    return placeHiddenSingle();
+                case LOCKED_CANDIDATES:
+                    return eliminateLockedCandidates();
+                case NAKED_PAIR:
+                    return eliminateNakedSubset(2);
+                case HIDDEN_PAIR:
+                    return eliminateHiddenSubset(2);
+                case NAKED_TRIPLE:
+                    return eliminateNakedSubset(3);
+                case HIDDEN_TRIPLE:
+                    return eliminateHiddenSubset(3);
+                case X_WING:
+                    return eliminateFish(2);
+                case NAKED_QUAD:
+                    return eliminateNakedSubset(4);
+                case HIDDEN_QUAD:
+                    return eliminateHiddenSubset(4);
+                case SWORDFISH:
+                    return eliminateFish(3);
+                case XY_WING:
+                    return eliminateXYWing();
+                case JELLYFISH:
+                    return eliminateFish(4);
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Places the value of the first {@link Field} with only one candidate left.
+         *
+         * @return true, if a value was placed, false, if otherwise.
+         */
+        private boolean placeNakedSingle() {
+            for(int fieldIndex = 0; fieldIndex < values.length; fieldIndex++) {
+                long fieldCandidates = candidates[fieldIndex];
+
+                if(values[fieldIndex] == 0 && Long.bitCount(fieldCandidates) == 1) {
+                    place(fieldIndex, Long.numberOfTrailingZeros(fieldCandidates) + 1);
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Places the first value that has only one possible {@link Field} left within a unit.
+         *
+         * @return true, if a value was placed or a value was found without any possible field, false, if otherwise.
+         */
+        private boolean placeHiddenSingle() {
+            int[] units = topology.getUnits();
+
+            for(int unit = 0; unit < topology.getUnitCount(); unit++) {
+                int start = topology.getUnitStart(unit),
+                    end = topology.getUnitStart(unit + 1);
+                long once = 0, twice = 0, placed = 0;
+
+                for(int i = start; i < end; i++) {
+                    int fieldIndex = units[i];
+
+                    if(values[fieldIndex] != 0) {
+                        placed |= getBit(values[fieldIndex]);
+                        continue;
+                    }
+
+                    twice |= once & candidates[fieldIndex];
+                    once |= candidates[fieldIndex];
+                }
+
+                if(Long.bitCount(once | placed) < end - start) {
+                    consistent = false;
+                    return true;
+                }
+
+                long hiddenSingles = once & ~twice;
+
+                if(hiddenSingles == 0)
+                    continue;
+
+                long bit = Long.lowestOneBit(hiddenSingles);
+
+                for(int i = start; i < end; i++) {
+                    if((candidates[units[i]] & bit) != 0) {
+                        place(units[i], Long.numberOfTrailingZeros(bit) + 1);
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Eliminates the first locked candidates found. If the candidates of values within a {@link Board}
+         * all lie in the same row, the values can not be placed anywhere else in that row (pointing).
+         * If the candidates of values within a row all lie in the same board,
+         * the values can not be placed anywhere else in that board (claiming).
+         *
+         * @return true, if candidates were eliminated, false, if otherwise.
+         */
+        private boolean eliminateLockedCandidates() {
+            int[] units = topology.getUnits();
+
+            for(int board = 2 * size; board < 3 * size; board++) {
+                int boardStart = topology.getUnitStart(board),
+                    boardEnd = topology.getUnitStart(board + 1);
+
+                for(int i = boardStart; i < boardEnd; i++) {
+                    int fieldIndex = units[i];
+
+                    // every crossing row is checked once, at the first field of the board it contains
+                    if(isFirstOfRow(units, boardStart, i, true)
+                            && eliminateLockedCandidates(board, topology.getHorizontalRowUnit(fieldIndex)))
+                        return true;
+
+                    if(isFirstOfRow(units, boardStart, i, false)
+                            && eliminateLockedCandidates(board, topology.getVerticalRowUnit(fieldIndex)))
+                        return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Checks if a {@link Field} of a {@link Board} is the first one of its row within the board.
+         *
+         * @param units      The field indexes of all units.
+         * @param boardStart The position of the first field of the board.
+         * @param position   The position of the field.
+         * @param horizontal Whether the horizontal or the vertical row is checked.
+         *
+         * @return true, if no earlier field of the board belongs to the same row, false, if otherwise.
+         */
+        private boolean isFirstOfRow(int[] units, int boardStart, int position, boolean horizontal) {
+            int fieldIndex = units[position];
+
+            for(int i = boardStart; i < position; i++) {
+                if(horizontal ? topology.getHorizontalRowIndex(units[i]) == topology.getHorizontalRowIndex(fieldIndex)
+                        : topology.getVerticalRowIndex(units[i]) == topology.getVerticalRowIndex(fieldIndex))
+                    return false;
+            }
+
+            return true;
+        }
+
+        /**
+         * Eliminates the locked candidates of the intersection of a {@link Board} and a row.
+         *
+         * @param board The unit of the board.
+         * @param row   The unit of the row.
+         *
+         * @return true, if candidates were eliminated, false, if otherwise.
+         */
+        private boolean eliminateLockedCandidates(int board, int row) {
+            int[] units = topology.getUnits();
+            int boardIndex = board - 2 * size;
+            long intersection = 0, boardRest = 0, rowRest = 0;
+
+            for(int i = topology.getUnitStart(row); i < topology.getUnitStart(row + 1); i++) {
+                if(topology.getBoardIndex(units[i]) == boardIndex)
+                    intersection |= candidates[units[i]];
+                else
+                    rowRest |= candidates[units[i]];
+            }
+
+            for(int i = topology.getUnitStart(board); i < topology.getUnitStart(board + 1); i++) {
+                if(!isInUnit(units[i], row))
+                    boardRest |= candidates[units[i]];
+            }
+
+            long pointing = intersection & ~boardRest & rowRest,
+                 claiming = intersection & ~rowRest & boardRest;
+
+            if(pointing != 0) {
+                for(int i = topology.getUnitStart(row); i < topology.getUnitStart(row + 1); i++) {
+                    if(topology.getBoardIndex(units[i]) != boardIndex)
+                        eliminate(units[i], pointing);
+                }
+
+                return true;
+            }
+
+            if(claiming != 0) {
+                for(int i = topology.getUnitStart(board); i < topology.getUnitStart(board + 1); i++) {
+                    if(!isInUnit(units[i], row))
+                        eliminate(units[i], claiming);
+                }
+
+                return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Eliminates the candidates of the first naked subset found that eliminates anything.
+         * If k {@link Field}s of a unit share k candidates, no other field of the unit can have these candidates.
+         *
+         * @param k The size of the subset.
+         *
+         * @return true, if candidates were eliminated, false, if otherwise.
+         */
+        private boolean eliminateNakedSubset(int k) {
+            int[] units = topology.getUnits();
+
+            for(int unit = 0; unit < topology.getUnitCount(); unit++) {
+                int start = topology.getUnitStart(unit),
+                    end = topology.getUnitStart(unit + 1);
+
+                for(int i = start; i < end; i++) {
+                    long fieldCandidates = candidates[units[i]];
+
+                    // solved fields and fields with too many candidates can never be members
+                    masks[i - start] = Long.bitCount(fieldCandidates) <= k ? fieldCandidates : 0;
+                }
+
+                if(findSubset(end - start, k, 0, 0, 0, 0, (members, union) -> {
+                    boolean eliminated = false;
+
+                    for(int i = start; i < end; i++) {
+                        if((members & (1L << (i - start))) == 0)
+                            eliminated |= eliminate(units[i], union);
+                    }
+
+                    return eliminated;
+                }))
+                    return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Eliminates the candidates of the first hidden subset found that eliminates anything.
+         * If k values of a unit can only be placed in the same k {@link Field}s,
+         * these fields can not have any other candidates.
+         *
+         * @param k The size of the subset.
+         *
+         * @return true, if candidates were eliminated, false, if otherwise.
+         */
+        private boolean eliminateHiddenSubset(int k) {
+            int[] units = topology.getUnits();
+
+            for(int unit = 0; unit < topology.getUnitCount(); unit++) {
+                int start = topology.getUnitStart(unit),
+                    end = topology.getUnitStart(unit + 1);
+
+                for(int value = 0; value < size; value++) {
+                    long positions = 0;
+
+                    for(int i = start; i < end; i++) {
+                        if((candidates[units[i]] & (1L << value)) != 0)
+                            positions |= 1L << (i - start);
+                    }
+
+                    // values with a single position are hidden singles, which are placed before
+                    masks[value] = Long.bitCount(positions) <= k ? positions : 0;
+                }
+
+                if(findSubset(size, k, 0, 0, 0, 0, (members, union) -> {
+                    boolean eliminated = false;
+
+                    for(long positions = union; positions != 0; positions &= positions - 1)
+                        eliminated |= eliminate(units[start + Long.numberOfTrailingZeros(positions)], ~members);
+
+                    return eliminated;
+                }))
+                    return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Eliminates the candidates of the first fish of a size found that eliminates anything.
+         * If the candidates of a value within k rows lie in the same k crossing rows,
+         * the value can not be placed anywhere else in these crossing rows.
+         *
+         * @param k The size of the fish, 2 for an X-Wing.
+         *
+         * @return true, if candidates were eliminated, false, if otherwise.
+         */
+        private boolean eliminateFish(int k) {
+            for(int value = 0; value < size; value++) {
+                if(eliminateFish(k, 1L << value, true) || eliminateFish(k, 1L << value, false))
+                    return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Eliminates the candidates of the first fish of a value found that eliminates anything.
+         *
+         * @param k          The size of the fish.
+         * @param bit        The bit of the value.
+         * @param horizontal Whether the rows containing the fish are horizontal or vertical.
+         *
+         * @return true, if candidates were eliminated, false, if otherwise.
+         */
+        private boolean eliminateFish(int k, long bit, boolean horizontal) {
+            int[] units = topology.getUnits();
+            int baseOffset = horizontal ? 0 : size,
+                coverOffset = horizontal ? size : 0;
+
+            for(int row = 0; row < size; row++) {
+                int start = topology.getUnitStart(baseOffset + row);
+                long positions = 0;
+
+                for(int i = 0; i < size; i++) {
+                    if((candidates[units[start + i]] & bit) != 0)
+                        positions |= 1L << i;
+                }
+
+                masks[row] = Long.bitCount(positions) <= k ? positions : 0;
+            }
+
+            return findSubset(size, k, 0, 0, 0, 0, (members, union) -> {
+                boolean eliminated = false;
+
+                for(long crossing = union; crossing != 0; crossing &= crossing - 1) {
+                    int start = topology.getUnitStart(coverOffset + Long.numberOfTrailingZeros(crossing));
+
+                    for(int i = 0; i < size; i++) {
+                        if((members & (1L << i)) == 0)
+                            eliminated |= eliminate(units[start + i], bit);
+                    }
+                }
+
+                return eliminated;
+            });
+        }
+
+        /**
+         * Eliminates the candidates of the first XY-Wing found that eliminates anything.
+         * If a {@link Field} with the candidates a and b sees a field with the candidates a and c
+         * and another one with the candidates b and c, one of the latter has to be c,
+         * so c can not be placed in any field seeing both.
+         *
+         * @return true, if candidates were eliminated, false, if otherwise.
+         */
+        private boolean eliminateXYWing() {
+            int[] peers = topology.getPeers();
+            int peerCount = topology.getPeerCount();
+
+            for(int pivot = 0; pivot < values.length; pivot++) {
+                long pivotCandidates = candidates[pivot];
+
+                if(Long.bitCount(pivotCandidates) != 2)
+                    continue;
+
+                for(int i = pivot * peerCount; i < (pivot + 1) * peerCount; i++) {
+                    int first = peers[i];
+                    long firstCandidates = candidates[first];
+
+                    if(Long.bitCount(firstCandidates) != 2 || Long.bitCount(firstCandidates & pivotCandidates) != 1)
+                        continue;
+
+                    long wing = firstCandidates & ~pivotCandidates,
+                         second = wing | (pivotCandidates & ~firstCandidates);
+
+                    for(int j = i + 1; j < (pivot + 1) * peerCount; j++) {
+                        if(candidates[peers[j]] == second && eliminateSeenByBoth(first, peers[j], wing))
+                            return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Eliminates candidates from every unsolved {@link Field} that is a peer of two fields.
+         *
+         * @param first  The index of the first field.
+         * @param second The index of the second field.
+         * @param bits   The bitmask of the candidates to be eliminated.
+         *
+         * @return true, if candidates were eliminated, false, if otherwise.
+         */
+        private boolean eliminateSeenByBoth(int first, int second, long bits) {
+            int[] peers = topology.getPeers();
+            int peerCount = topology.getPeerCount();
+            boolean eliminated = false;
+
+            for(int i = first * peerCount; i < (first + 1) * peerCount; i++) {
+                if(peers[i] != second && isPeer(peers[i], second))
+                    eliminated |= eliminate(peers[i], bits);
+            }
+
+            return eliminated;
+        }
+
+        /**
+         * Checks if two {@link Field}s share a row or a {@link Board}.
+         *
+         * @param first  The index of the first field.
+         * @param second The index of the second field.
+         *
+         * @return true, if the fields are peers, false, if otherwise.
+         */
+        private boolean isPeer(int first, int second) {
+            return topology.getHorizontalRowIndex(first) == topology.getHorizontalRowIndex(second)
+                    || topology.getVerticalRowIndex(first) == topology.getVerticalRowIndex(second)
+                    || topology.getBoardIndex(first) == topology.getBoardIndex(second);
+        }
+
+        /**
+         * Searches subsets of k of the first masks in {@link #masks} whose union has exactly k bits.
+         * Masks that are 0 are never members.
+         *
+         * @param count   The amount of masks.
+         * @param k       The size of the subsets.
+         * @param next    The index of the next mask to be considered.
+         * @param chosen  The amount of members chosen so far.
+         * @param members The bitmask of the indexes of the members chosen so far.
+         * @param union   The union of the members chosen so far.
+         * @param action  The action applied to every subset found.
+         *
+         * @return true, if the action made progress for a subset, false, if otherwise.
+         */
+        private boolean findSubset(int count, int k, int next, int chosen, long members, long union,
+                                   SubsetAction action) {
+            if(chosen == k)
+                return action.apply(members, union);
+
+            for(int i = next; i <= count - (k - chosen); i++) {
+                long mask = masks[i];
+
+                if(mask == 0 || Long.bitCount(union | mask) > k)
+                    continue;
+
+                if(findSubset(count, k, i + 1, chosen + 1, members | (1L << i), union | mask, action))
+                    return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Checks if a {@link Field} belongs to a row.
+         *
+         * @param fieldIndex The index of the field.
+         * @param row        The unit of the row.
+         *
+         * @return true, if the field belongs to the row, false, if otherwise.
+         */
+        private boolean isInUnit(int fieldIndex, int row) {
+            return row < size ? topology.getHorizontalRowUnit(fieldIndex) == row
+                    : topology.getVerticalRowUnit(fieldIndex) == row;
+        }
+
+        /**
+         * Places a value at a {@link Field} and eliminates it from the candidates of all peers of the field.
+         *
+         * @param fieldIndex The index of the field.
+         * @param value      The value to be placed.
+         */
+        private void place(int fieldIndex, int value) {
+            int[] peers = topology.getPeers();
+            int peerCount = topology.getPeerCount();
+
+            values[fieldIndex] = value;
+            candidates[fieldIndex] = 0;
+            unsolvedFields--;
+
+            for(int i = fieldIndex * peerCount; i < (fieldIndex + 1) * peerCount; i++)
+                eliminate(peers[i], getBit(value));
+        }
+
+        /**
+         * Eliminates candidates of an unsolved {@link Field}.
+         *
+         * @param fieldIndex The index of the field.
+         * @param bits       The bitmask of the candidates to be eliminated, may contain values that are no candidates.
+         *
+         * @return true, if a candidate was eliminated, false, if otherwise.
+         */
+        private boolean eliminate(int fieldIndex, long bits) {
+            if(values[fieldIndex] != 0 || (candidates[fieldIndex] & bits) == 0)
+                return false;
+
+            candidates[fieldIndex] &= ~bits;
+
+            if(candidates[fieldIndex] == 0)
+                consistent = false;
+
+            return true;
+        }
+
+        /**
+         * Gets the bit representing a value.
+         *
+         * @param value The value.
+         *
+         * @return The bit representing the value.
+         */
+        private static long getBit(int value) {
+            return 1L << (value - 1);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+/**
+ * The rating of a sudoku by the {@link DifficultyRater}: the hardest {@link Technique} needed,
+ * the amount of times every technique was used and the amount of guesses needed to search the rest,
+ * if the techniques did not suffice. Unlike timing a solver, the rating does not depend on the machine.
+ */
+public class DifficultyRating {
+
+    /**
+     * The status of the rated sudoku, either {@link SolveStatus#SOLVED} or {@link SolveStatus#UNSOLVABLE}.
+     */
+    private final SolveStatus status;
+
+    /**
+     * The hardest technique needed, null, if the sudoku did not need any.
+     */
+    private final Technique hardest;
+
+    /**
+     * The amount of times every technique was used, indexed by its ordinal.
+     */
+    private final long[] steps;
+
+    /**
+     * The amount of guesses the {@link BitmaskSolver} needed to search the rest.
+     */
+    private final long guesses;
+
+    /**
+     * @param status  The status of the rated sudoku.
+     * @param hardest The hardest technique needed, null, if the sudoku did not need any.
+     * @param steps   The amount of times every technique was used, indexed by its ordinal.
+     * @param guesses The amount of guesses needed to search the rest.
+     */
+    DifficultyRating(SolveStatus status, Technique hardest, long[] steps, long guesses) {
+        this.status = status;
+        this.hardest = hardest;
+        this.steps = steps;
+        this.guesses = guesses;
+    }
+
+    /**
+     * Gets the status of the rated sudoku.
+     *
+     * @return {@link SolveStatus#SOLVED}, if the sudoku has a solution, {@link SolveStatus#UNSOLVABLE}, if otherwise.
+     */
+    public SolveStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the hardest {@link Technique} needed, which is the difficulty tier of the sudoku.
+     *
+     * @return The hardest technique, {@link Technique#GUESSING}, if the techniques did not suffice,
+     *         null, if the sudoku did not need any technique.
+     */
+    public Technique getHardestTechnique() {
+        return hardest;
+    }
+
+    /**
+     * Gets the amount of times a {@link Technique} was used. Every placement or set of eliminations counts once.
+     *
+     * @param technique The technique.
+     *
+     * @return The amount of times the technique was used.
+     */
+    public long getSteps(Technique technique) {
+        return steps[technique.ordinal()];
+    }
+
+    /**
+     * Gets the amount of guesses the {@link BitmaskSolver} needed to search the rest
+     * after the techniques did not make progress anymore, which is the size of the search tree.
+     *
+     * @return The amount of guesses, 0, if the techniques sufficed.
+     */
+    public long getGuesses() {
+        return guesses;
+    }
+
+    /**
+     * Gets the score of the sudoku: the weight of the hardest {@link Technique} needed,
+     * plus the binary logarithm of the size of the search tree, if the techniques did not suffice.
+     *
+     * @return The score, 0, if the sudoku did not need any technique.
+     */
+    public double getScore() {
+        if(hardest == null)
+            return 0;
+
+        return hardest.getWeight() + Math.log(1 + guesses) / Math.log(2);
+    }
+
+    @Override
+    public String toString() {
+        return status + " " + (hardest == null ? "NONE" : hardest) + ", " + guesses + " guesses, score "
+                + String.format("%.2f", getScore());
+    }
+}
@@ -0,0 +1,335 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Field;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Searches the guesses of the most constrained {@link Field} in parallel on a {@link ForkJoinPool}.
+ * Every sudoku is first given a small budget of sequential guesses, so cheap sudokus are solved
+ * without any forking. Otherwise the search is forked from the propagated state before those guesses,
+ * which still count towards the guess limit. Every candidate of the most constrained field becomes its own task,
+ * recursively up to the fork depth. Deeper subtrees and subtrees with only a few unsolved fields
+ * are searched sequentially, checking every few guesses whether a sibling already found a solution
+ * and whether the {@link SolveOptions} allow the solve to continue.
+ */
+public class ParallelStrategy implements SolverStrategy {
+
+    /**
+     * The default amount of guess levels that are forked into tasks.
+     */
+    public static final int DEFAULT_FORK_DEPTH = 4;
+
+    /**
+     * The default amount of guesses made sequentially before the search is forked.
+     */
+    public static final long DEFAULT_SEQUENTIAL_GUESSES = 256;
+
+    /**
+     * The amount of guesses a sequential search makes between two checks for cancellation.
+     */
+    private static final long CANCELLATION_CHECK_GUESSES = 64;
+
+    /**
+     * The pool the tasks are forked on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The amount of guess levels that are forked into tasks.
+     */
+    private final int forkDepth;
+
+    /**
+     * The amount of guesses made sequentially before the search is forked.
+     */
+    private final long sequentialGuesses;
+
+    /**
+     * The amount of unsolved {@link Field}s below which a subtree is searched sequentially.
+     */
+    private final int minForkFields;
+
+    /**
+     * The strategy used for sudokus the {@link BitmaskSolver} does not support.
+     */
+    private final SolverStrategy fallbackStrategy = new StrategySelector();
+
+    public ParallelStrategy() {
+        this(ForkJoinPool.commonPool(), DEFAULT_FORK_DEPTH, DEFAULT_SEQUENTIAL_GUESSES, 0);
+    }
+
+    /**
+     * @param pool              The pool the tasks are forked on.
+     * @param forkDepth         The amount of guess levels that are forked into tasks.
+     * @param sequentialGuesses The amount of guesses made sequentially before the search is forked.
+     * @param minForkFields     The amount of unsolved fields below which a subtree is searched sequentially.
+     */
+    public ParallelStrategy(ForkJoinPool pool, int forkDepth, long sequentialGuesses, int minForkFields) {
+        if(forkDepth < 0)
+            throw new IllegalArgumentException("The fork depth can not be negative.");
+        if(sequentialGuesses < 0)
+            throw new IllegalArgumentException("The amount of sequential guesses can not be negative.");
+
+        this.pool = pool;
+        this.forkDepth = forkDepth;
+        this.sequentialGuesses = sequentialGuesses;
+        this.minForkFields = minForkFields;
+    }
+
+    @Override
+    public SolveResult solve(Sudoku sudoku, SolveOptions options) {
+        if(!BitmaskSolver.supports(sudoku))
+            return fallbackStrategy.solve(sudoku, options);
+
+        Grid grid = Grid.fromSudoku(sudoku);
+        BitmaskSolver solver = new BitmaskSolver(grid), root = null;
+        long guesses = Math.min(sequentialGuesses, options.getMaxGuesses());
+        SolveStatus status = solver.propagate();
+
+        if(status == SolveStatus.PAUSED) {
+            root = new BitmaskSolver(solver);
+            status = solver.resume(guesses);
+        }
+
+        SolveStatistics statistics = solver.getStatistics();
+
+        guesses = statistics.getGuesses();
+
+        if(status == SolveStatus.PAUSED && (status = options.getStopStatus(guesses)) == null) {
+            Search search = new Search(options, guesses, statistics);
+
+            solver = pool.invoke(new SearchTask(root, 0, search));
+            status = solver != null ? SolveStatus.SOLVED : search.getStatus();
+        }
+
+        if(status != SolveStatus.SOLVED)
+            return SolveResult.of(status, statistics);
+
+        return new SolveResult(status, solver.writeGrid(grid).toSudoku(), statistics);
+    }
+
+    /**
+     * The state shared by all tasks of a solve.
+     */
+    private static class Search {
+
+        /**
+         * The limits of the solve.
+         */
+        private final SolveOptions options;
+
+        /**
+         * The amount of guesses made by all tasks so far.
+         */
+        private final AtomicLong guesses;
+
+        /**
+         * The statistics all tasks add the statistics of their solvers to, guarded by itself.
+         */
+        private final SolveStatistics statistics;
+
+        /**
+         * Set by the first task that finds a solution or stops the solve.
+         */
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        /**
+         * The status the solve was stopped with by the options, null, if it has not been stopped.
+         */
+        private volatile SolveStatus stopStatus;
+
+        /**
+         * @param options    The limits of the solve.
+         * @param guesses    The amount of guesses made before the search was forked.
+         * @param statistics The statistics all tasks add the statistics of their solvers to.
+         */
+        private Search(SolveOptions options, long guesses, SolveStatistics statistics) {
+            this.options = options;
+            this.guesses = new AtomicLong(guesses);
+            this.statistics = statistics;
+        }
+
+        /**
+         * Counts the guesses of a task and stops the solve, if the options do not allow it to continue.
+         *
+         * @param amount The amount of guesses made by the task since it last counted them.
+         *
+         * @return true, if the solve has been finished, false, if otherwise.
+         */
+        private boolean countGuesses(long amount) {
+            if(finished.get())
+                return true;
+
+            SolveStatus status = options.getStopStatus(guesses.addAndGet(amount));
+
+            if(status == null)
+                return false;
+
+            if(finished.compareAndSet(false, true))
+                stopStatus = status;
+
+            return true;
+        }
+
+        /**
+         * Finishes the solve with the solution of a task, if no other task finished it before.
+         *
+         * @return true, if the solution of the task is the result of the solve, false, if otherwise.
+         */
+        private boolean finish() {
+            return finished.compareAndSet(false, true);
+        }
+
+        /**
+         * Gets the status of a solve that did not find a solution.
+         *
+         * @return The status the solve was stopped with, {@link SolveStatus#UNSOLVABLE}, if it was not stopped.
+         */
+        private SolveStatus getStatus() {
+            return stopStatus != null ? stopStatus : SolveStatus.UNSOLVABLE;
+        }
+    }
+
+    /**
+     * Searches the subtree below the current state of a {@link BitmaskSolver}.
+     */
+    private class SearchTask extends RecursiveTask<BitmaskSolver> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The solver containing the state of the subtree, owned by this task.
+         */
+        private final transient BitmaskSolver solver;
+
+        /**
+         * The amount of guesses made above the subtree.
+         */
+        private final int depth;
+
+        /**
+         * The state shared by all tasks of the solve.
+         */
+        private final transient Search search;
+
+        private SearchTask(BitmaskSolver solver, int depth, Search search) {
+            this.solver = solver;
+            this.depth = depth;
+            this.search = search;
+        }
+
+        @Override
+        protected BitmaskSolver compute() {
+            try {
+                return search();
+            } finally {
+                SolveStatistics solverStatistics = solver.getStatistics();
+
+                synchronized(search.statistics) {
+                    search.statistics.add(solverStatistics);
+                }
+            }
+        }
+
+        /**
+         * Searches the subtree, forking tasks for the candidates of the most constrained field.
+         * Every candidate counts as a guess towards the guess limit.
+         *
+         * @return The solver containing the solution, null, if no solution was found, another task was faster
+         *         or the solve was stopped.
+         */
+        private BitmaskSolver search() {
+            if(search.finished.get())
+                return null;
+
+            SolveStatus status = solver.propagate();
+
+            if(status == SolveStatus.UNSOLVABLE)
+                return null;
+
+            if(status == SolveStatus.SOLVED)
+                return search.finish() ? solver : null;
+
+            if(depth >= forkDepth || solver.getUnsolvedFieldCount() < minForkFields)
+                return searchSequentially();
+
+            int fieldIndex = solver.getMostConstrainedField();
+            long candidates = solver.getCandidates(fieldIndex);
+            List<SearchTask> tasks = new ArrayList<>();
+
+            if(search.countGuesses(Long.bitCount(candidates)))
+                return null;
+
+            while(candidates != 0) {
+                long bit = Long.lowestOneBit(candidates);
+                BitmaskSolver branch = new BitmaskSolver(solver);
+
+                candidates ^= bit;
+
+                if(branch.setValue(fieldIndex, Long.numberOfTrailingZeros(bit) + 1))
+                    tasks.add(new SearchTask(branch, depth + 1, search));
+            }
+
+            for(int i = tasks.size() - 1; i > 0; i--)
+                tasks.get(i).fork();
+
+            BitmaskSolver result = tasks.isEmpty() ? null : tasks.get(0).compute();
+
+            for(int i = 1; i < tasks.size(); i++) {
+                SearchTask task = tasks.get(i);
+
+                if(result != null && task.tryUnfork())
+                    continue;
+
+                BitmaskSolver taskResult = task.join();
+
+                if(result == null)
+                    result = taskResult;
+            }
+
+            return result;
+        }
+
+        /**
+         * Searches the subtree without forking, pausing regularly to check if another task found a solution
+         * and if the options allow the solve to continue. The guesses of every pause and of an exhausted subtree
+         * count towards the guess limit.
+         *
+         * @return The solver containing the solution, null, if no solution was found, another task was faster
+         *         or the solve was stopped.
+         */
+        private BitmaskSolver searchSequentially() {
+            long countedGuesses = solver.getStatistics().getGuesses();
+            SolveStatus status;
+            boolean finished;
+
+            do {
+                status = solver.resume(CANCELLATION_CHECK_GUESSES);
+
+                if(status == SolveStatus.SOLVED)
+                    return search.finish() ? solver : null;
+
+                long guesses = solver.getStatistics().getGuesses();
+
+                finished = search.countGuesses(guesses - countedGuesses);
+                countedGuesses = guesses;
+            } while(status == SolveStatus.PAUSED && !finished);
+
+            return null;
+        }
+    }
+}
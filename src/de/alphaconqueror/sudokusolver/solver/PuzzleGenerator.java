@@ -0,0 +1,297 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Board;
+import de.alphaconqueror.sudokusolver.structure.Field;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Topology;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates sudokus with a unique solution using the {@link BitmaskSolver}. A random solution is found
+ * by solving an empty {@link Grid} with the candidates of every guess tried in a random order.
+ * Its values are then removed in a random order, keeping every value whose removal would allow another solution,
+ * until no value can be removed anymore or the minimum amount of givens is reached.
+ * Generators keep no state between sudokus, so one generator can be used by many threads at once.
+ * The same random values always produce the same sudoku.
+ */
+public class PuzzleGenerator {
+
+    /**
+     * The amount of guesses after which the search for a random solution is restarted,
+     * since some random choices take exceptionally long to be completed.
+     */
+    private static final long SOLUTION_GUESSES = 10_000;
+
+    /**
+     * The {@link Topology} of the generated sudokus.
+     */
+    private final Topology topology;
+
+    /**
+     * The amount of givens at which the removal of values stops, 0 to generate minimal sudokus.
+     */
+    private final int minGivens;
+
+    /**
+     * The amount of guesses after which checking if a value can be removed is given up and the value is kept.
+     */
+    private final long maxCheckGuesses;
+
+    /**
+     * Creates a generator of minimal sudokus.
+     *
+     * @param topology The topology of the generated sudokus.
+     */
+    public PuzzleGenerator(Topology topology) {
+        this(topology, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param topology        The topology of the generated sudokus, which has to be square.
+     * @param minGivens       The amount of givens at which the removal of values stops, 0 to remove as many as possible.
+     *                        More givens generally lead to easier sudokus.
+     * @param maxCheckGuesses The amount of guesses after which checking if a value can be removed is given up
+     *                        and the value is kept, {@link Long#MAX_VALUE} to generate minimal sudokus.
+     *                        Keeping values never breaks the uniqueness, but it makes the generated sudokus easier:
+     *                        0 only removes values implied by the propagation of the solver, so the sudokus can be
+     *                        solved without guessing. Limiting the guesses mostly pays off for large sudokus,
+     *                        whose checks take by far the most time.
+     */
+    public PuzzleGenerator(Topology topology, int minGivens, long maxCheckGuesses) {
+        if(!topology.isSquare() || topology.getSize() > BitmaskSolver.MAX_SIZE)
+            throw new IllegalArgumentException("Only square sudokus with at most " + BitmaskSolver.MAX_SIZE
+                    + " possible values per field can be generated.");
+        if(minGivens < 0 || minGivens > topology.getFieldCount())
+            throw new IllegalArgumentException("The minimum amount of givens has to be between 0 and "
+                    + topology.getFieldCount() + ".");
+        if(maxCheckGuesses < 0)
+            throw new IllegalArgumentException("The maximum amount of guesses can not be negative.");
+
+        this.topology = topology;
+        this.minGivens = minGivens;
+        this.maxCheckGuesses = maxCheckGuesses;
+    }
+
+    /**
+     * Generates a sudoku with a unique solution.
+     *
+     * @param random The source of randomness.
+     *
+     * @return The generated sudoku.
+     */
+    public Grid generate(SplittableRandom random) {
+        return reduce(generateSolution(random), random);
+    }
+
+    /**
+     * Generates a random solved {@link Grid}. The {@link Board}s on the diagonal do not share any rows,
+     * so they are filled with random permutations of the values right away, which leaves the solver less to guess.
+     *
+     * @param random The source of randomness.
+     *
+     * @return The generated solution.
+     */
+    public Grid generateSolution(SplittableRandom random) {
+        int boardWidth = topology.getBoardWidth(),
+            boardHeight = topology.getBoardHeight(),
+            size = topology.getSize();
+        int[] permutation = new int[size];
+
+        while(true) {
+            Grid grid = new Grid(topology);
+
+            for(int board = 0; board < Math.min(topology.getWidth(), topology.getHeight()); board++) {
+                shuffle(permutation, random);
+
+                for(int i = 0; i < size; i++)
+                    grid.setValue(board * boardWidth + i % boardWidth, board * boardHeight + i / boardWidth,
+                            permutation[i] + 1);
+            }
+
+            BitmaskSolver solver = new BitmaskSolver(grid);
+
+            solver.setRandom(random);
+
+            if(solver.resume(SOLUTION_GUESSES) == SolveStatus.SOLVED)
+                return solver.writeGrid(grid);
+        }
+    }
+
+    /**
+     * Removes values of a solved {@link Grid} in a random order as long as the solution stays unique.
+     * A value that can not be removed can not be removed later on either, since removing further values
+     * only allows more solutions, so a single pass yields a minimal sudoku, unless the checks are limited.
+     * While many values are left, most removed values are still implied by the remaining ones as a single,
+     * which is checked using the bitmasks of the remaining values before solving anything.
+     *
+     * @param solution The solved grid.
+     * @param random   The source of randomness.
+     *
+     * @return The sudoku left after removing the values.
+     */
+    public Grid reduce(Grid solution, SplittableRandom random) {
+        Grid sudoku = solution.copy();
+        int[] order = new int[topology.getFieldCount()];
+        long[] unitMasks = new long[topology.getUnitCount()];
+        int givens = order.length;
+        BitmaskSolver solver = new BitmaskSolver(sudoku);
+
+        shuffle(order, random);
+
+        for(int fieldIndex = 0; fieldIndex < order.length; fieldIndex++)
+            setUnitMasks(unitMasks, fieldIndex, sudoku.getValue(fieldIndex), true);
+
+        for(int i = 0; i < order.length && givens > minGivens; i++) {
+            int fieldIndex = order[i],
+                value = sudoku.getValue(fieldIndex);
+
+            sudoku.setValue(fieldIndex, 0);
+            setUnitMasks(unitMasks, fieldIndex, value, false);
+
+            if(isSingle(sudoku, unitMasks, fieldIndex, value) || isForced(solver, sudoku, fieldIndex, value)) {
+                givens--;
+            } else {
+                sudoku.setValue(fieldIndex, value);
+                setUnitMasks(unitMasks, fieldIndex, value, true);
+            }
+        }
+
+        return sudoku;
+    }
+
+    /**
+     * Adds or removes a value to or from the bitmasks of the units a {@link Field} belongs to.
+     *
+     * @param unitMasks  The bitmasks of the values of every unit.
+     * @param fieldIndex The index of the field.
+     * @param value      The value.
+     * @param used       Whether the value is added or removed.
+     */
+    private void setUnitMasks(long[] unitMasks, int fieldIndex, int value, boolean used) {
+        long bit = 1L << (value - 1);
+
+        for(int unit : new int[] {topology.getHorizontalRowUnit(fieldIndex), topology.getVerticalRowUnit(fieldIndex),
+                topology.getBoardUnit(fieldIndex)}) {
+            if(used)
+                unitMasks[unit] |= bit;
+            else
+                unitMasks[unit] &= ~bit;
+        }
+    }
+
+    /**
+     * Gets the bitmask of the values used by the peers of a {@link Field}.
+     *
+     * @param unitMasks  The bitmasks of the values of every unit.
+     * @param fieldIndex The index of the field.
+     *
+     * @return The bitmask of the values of the rows and the {@link Board} of the field.
+     */
+    private long getPeerMask(long[] unitMasks, int fieldIndex) {
+        return unitMasks[topology.getHorizontalRowUnit(fieldIndex)] | unitMasks[topology.getVerticalRowUnit(fieldIndex)]
+                | unitMasks[topology.getBoardUnit(fieldIndex)];
+    }
+
+    /**
+     * Checks if the remaining values of a sudoku leave a value as the only candidate of a {@link Field}
+     * or the field as the only place for the value within one of its units.
+     * Either way, the value is implied by the remaining ones and the removal keeps the solution unique.
+     *
+     * @param sudoku     The sudoku without the value.
+     * @param unitMasks  The bitmasks of the remaining values of every unit.
+     * @param fieldIndex The index of the field.
+     * @param value      The removed value.
+     *
+     * @return true, if the value is a naked or hidden single, false, if otherwise.
+     */
+    private boolean isSingle(Grid sudoku, long[] unitMasks, int fieldIndex, int value) {
+        long bit = 1L << (value - 1);
+
+        if(Long.bitCount(getPeerMask(unitMasks, fieldIndex)) == topology.getSize() - 1)
+            return true;
+
+        int[] units = topology.getUnits();
+
+        for(int unit : new int[] {topology.getHorizontalRowUnit(fieldIndex), topology.getVerticalRowUnit(fieldIndex),
+                topology.getBoardUnit(fieldIndex)}) {
+            int i = topology.getUnitStart(unit),
+                end = topology.getUnitStart(unit + 1);
+
+            while(i < end && (units[i] == fieldIndex || sudoku.getValue(units[i]) != 0
+                    || (getPeerMask(unitMasks, units[i]) & bit) != 0))
+                i++;
+
+            if(i == end)
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if a value is the only one a {@link Field} can have in any solution of a sudoku.
+     * Instead of counting the solutions, the sudoku is solved once with the value excluded.
+     *
+     * @param solver     The solver to be reset to the sudoku.
+     * @param sudoku     The sudoku, which has to have a solution with the value at the field.
+     * @param fieldIndex The index of the field.
+     * @param value      The value.
+     *
+     * @return true, if no solution has another value at the field,
+     *         false, if there is one or the check took more than {@link #maxCheckGuesses} guesses.
+     */
+    private boolean isForced(BitmaskSolver solver, Grid sudoku, int fieldIndex, int value) {
+        solver.reset(sudoku);
+
+        return !solver.excludeValue(fieldIndex, value) || solver.resume(maxCheckGuesses) == SolveStatus.UNSOLVABLE;
+    }
+
+    /**
+     * Fills an array with a random permutation of its indexes.
+     *
+     * @param array  The array to be filled.
+     * @param random The source of randomness.
+     */
+    private static void shuffle(int[] array, SplittableRandom random) {
+        for(int i = 0; i < array.length; i++) {
+            int j = random.nextInt(i + 1);
+
+            array[i] = array[j];
+            array[j] = i;
+        }
+    }
+
+    /**
+     * Gets the {@link Topology} of the generated sudokus.
+     *
+     * @return The topology of the generated sudokus.
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Gets the amount of givens at which the removal of values stops.
+     *
+     * @return The minimum amount of givens, 0, if as many values as possible are removed.
+     */
+    public int getMinGivens() {
+        return minGivens;
+    }
+
+    /**
+     * Gets the amount of guesses after which checking if a value can be removed is given up and the value is kept.
+     *
+     * @return The maximum amount of guesses per check, {@link Long#MAX_VALUE}, if minimal sudokus are generated.
+     */
+    public long getMaxCheckGuesses() {
+        return maxCheckGuesses;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Grid;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of counting the solutions of a sudoku, which stops as soon as a limit of solutions has been found.
+ * Checking for uniqueness only requires a limit of 2.
+ */
+public class SolutionCount {
+
+    /**
+     * The amount of solutions found and the limit the counting stopped at.
+     */
+    private final long count, limit;
+
+    /**
+     * The first solutions found, at most as many as requested.
+     */
+    private final List<Grid> solutions;
+
+    /**
+     * @param count     The amount of solutions found.
+     * @param limit     The limit the counting stopped at.
+     * @param solutions The first solutions found.
+     */
+    public SolutionCount(long count, long limit, List<Grid> solutions) {
+        this.count = count;
+        this.limit = limit;
+        this.solutions = Collections.unmodifiableList(solutions);
+    }
+
+    /**
+     * Gets the amount of solutions found, which is the exact amount of solutions if the limit has not been reached.
+     *
+     * @return The amount of solutions found.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the limit the counting stopped at.
+     *
+     * @return The maximum amount of solutions to be found.
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * Checks if the counting stopped because the limit was reached, so there might be more solutions.
+     *
+     * @return true, if the limit was reached, false, if otherwise.
+     */
+    public boolean isLimitReached() {
+        return count >= limit;
+    }
+
+    /**
+     * Checks if the sudoku has at least one solution.
+     *
+     * @return true, if a solution was found, false, if otherwise.
+     */
+    public boolean isSolvable() {
+        return count > 0;
+    }
+
+    /**
+     * Checks if the sudoku has been proven to have exactly one solution.
+     *
+     * @return true, if exactly one solution was found without reaching the limit, false, if otherwise.
+     */
+    public boolean isUnique() {
+        return count == 1 && count < limit;
+    }
+
+    /**
+     * Gets the first solutions found, at most as many as requested.
+     *
+     * @return An unmodifiable list of the solutions.
+     */
+    public List<Grid> getSolutions() {
+        return solutions;
+    }
+
+    @Override
+    public String toString() {
+        return count + (isLimitReached() ? " or more" : "") + (count == 1 ? " solution" : " solutions");
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+/**
+ * Limits a solve by a wall-clock deadline, a maximum amount of guesses and a {@link CancellationToken}.
+ * The solvers check the amount of guesses on every guess, but read the clock and the token
+ * only every {@value #CHECK_INTERVAL} guesses, so the checks cost next to nothing.
+ * A stopped solve returns {@link SolveStatus#TIMEOUT} or {@link SolveStatus#ABORTED}
+ * together with the statistics collected up to then. The options are immutable and can be shared by any amount
+ * of solves, which then share the deadline and the token, while every solve counts its own guesses.
+ */
+public class SolveOptions {
+
+    /**
+     * The amount of guesses between two checks of the deadline and the cancellation.
+     */
+    public static final int CHECK_INTERVAL = 256;
+
+    /**
+     * The value of the timeout and the maximum amount of guesses if there is no limit.
+     */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    /**
+     * The options without any limit.
+     */
+    public static final SolveOptions NONE = new SolveOptions(UNLIMITED, UNLIMITED, null);
+
+    /**
+     * The {@link System#nanoTime()} after which the solve times out, only used if {@link #timed} is true.
+     */
+    private final long deadline;
+
+    /**
+     * Whether the solve has a deadline.
+     */
+    private final boolean timed;
+
+    /**
+     * The maximum amount of guesses.
+     */
+    private final long maxGuesses;
+
+    /**
+     * The token cancelling the solve, null, if it can not be cancelled.
+     */
+    private final CancellationToken token;
+
+    /**
+     * Creates options whose deadline lies the given amount of milliseconds after their creation.
+     *
+     * @param timeoutMillis The milliseconds the solve may take, {@link #UNLIMITED} for no deadline.
+     * @param maxGuesses    The maximum amount of guesses, {@link #UNLIMITED} for no limit.
+     * @param token         The token cancelling the solve, null, if it can not be cancelled.
+     *
+     * @throws IllegalArgumentException if the timeout or the maximum amount of guesses is negative
+     */
+    public SolveOptions(long timeoutMillis, long maxGuesses, CancellationToken token) {
+        if(timeoutMillis < 0)
+            throw new IllegalArgumentException("The timeout can not be negative.");
+        if(maxGuesses < 0)
+            throw new IllegalArgumentException("The maximum amount of guesses can not be negative.");
+
+        this.timed = timeoutMillis < UNLIMITED / 1_000_000;
+        this.deadline = timed ? System.nanoTime() + timeoutMillis * 1_000_000 : 0;
+        this.maxGuesses = maxGuesses;
+        this.token = token;
+    }
+
+    /**
+     * @param options The options whose deadline and maximum amount of guesses are taken over.
+     * @param token   The token cancelling the solve, null, if it can not be cancelled.
+     */
+    private SolveOptions(SolveOptions options, CancellationToken token) {
+        this.timed = options.timed;
+        this.deadline = options.deadline;
+        this.maxGuesses = options.maxGuesses;
+        this.token = token;
+    }
+
+    /**
+     * Creates options with the same deadline and maximum amount of guesses, but another {@link CancellationToken}.
+     *
+     * @param token The token cancelling the solve, null, if it can not be cancelled.
+     *
+     * @return The new options.
+     */
+    public SolveOptions withToken(CancellationToken token) {
+        return new SolveOptions(this, token);
+    }
+
+    /**
+     * Checks the options before a guess. The amount of guesses is checked every time,
+     * the deadline and the cancellation only every {@value #CHECK_INTERVAL} guesses.
+     *
+     * @param guesses The amount of guesses made so far.
+     *
+     * @return The status the solve has to stop with, null, if it may continue.
+     */
+    public SolveStatus check(long guesses) {
+        if(guesses < maxGuesses && guesses % CHECK_INTERVAL != 0)
+            return null;
+
+        return getStopStatus(guesses);
+    }
+
+    /**
+     * Checks the options.
+     *
+     * @param guesses The amount of guesses made so far.
+     *
+     * @return {@link SolveStatus#ABORTED}, if the solve has been cancelled or used up its guesses,
+     *         {@link SolveStatus#TIMEOUT}, if the deadline has passed,
+     *         null, if the solve may continue.
+     */
+    public SolveStatus getStopStatus(long guesses) {
+        if(guesses >= maxGuesses || token != null && token.isCancelled())
+            return SolveStatus.ABORTED;
+
+        if(timed && System.nanoTime() - deadline >= 0)
+            return SolveStatus.TIMEOUT;
+
+        return null;
+    }
+
+    /**
+     * Gets the maximum amount of guesses.
+     *
+     * @return The maximum amount of guesses, {@link #UNLIMITED}, if there is no limit.
+     */
+    public long getMaxGuesses() {
+        return maxGuesses;
+    }
+
+    /**
+     * Gets the token cancelling the solve.
+     *
+     * @return The token, null, if the solve can not be cancelled.
+     */
+    public CancellationToken getToken() {
+        return token;
+    }
+}
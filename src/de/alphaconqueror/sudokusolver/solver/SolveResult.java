@@ -0,0 +1,101 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+
+public class SolveResult {
+
+    /**
+     * The status of the solve.
+     */
+    private final SolveStatus status;
+
+    /**
+     * The solved {@link Sudoku}, null, if no solution was found.
+     */
+    private final Sudoku solution;
+
+    /**
+     * The statistics of the solve, null, if statistics are disabled or were not collected.
+     */
+    private final SolveStatistics statistics;
+
+    public SolveResult(SolveStatus status, Sudoku solution) {
+        this(status, solution, null);
+    }
+
+    /**
+     * @param status     The status of the solve.
+     * @param solution   The solved sudoku, null, if no solution was found.
+     * @param statistics The statistics of the solve, attached only if statistics are enabled.
+     */
+    public SolveResult(SolveStatus status, Sudoku solution, SolveStatistics statistics) {
+        this.status = status;
+        this.solution = solution;
+        this.statistics = SolveStatistics.isEnabled() ? statistics : null;
+    }
+
+    /**
+     * Creates the result of a solve that did not find a solution.
+     *
+     * @param status The status of the solve.
+     *
+     * @return The result without a solution.
+     */
+    public static SolveResult of(SolveStatus status) {
+        return new SolveResult(status, null);
+    }
+
+    /**
+     * Creates the result of a solve that did not find a solution.
+     *
+     * @param status     The status of the solve.
+     * @param statistics The statistics of the solve.
+     *
+     * @return The result without a solution.
+     */
+    public static SolveResult of(SolveStatus status, SolveStatistics statistics) {
+        return new SolveResult(status, null, statistics);
+    }
+
+    /**
+     * Gets the status of the solve.
+     *
+     * @return The status of the solve.
+     */
+    public SolveStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks if a solution was found.
+     *
+     * @return true, if a solution was found, false, if otherwise.
+     */
+    public boolean isSolved() {
+        return status == SolveStatus.SOLVED;
+    }
+
+    /**
+     * Gets the solved {@link Sudoku}.
+     *
+     * @return The solved sudoku, null, if no solution was found.
+     */
+    public Sudoku getSolution() {
+        return solution;
+    }
+
+    /**
+     * Gets the statistics of the solve.
+     *
+     * @return The statistics of the solve, null, if statistics are disabled or the strategy does not collect them.
+     */
+    public SolveStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Field;
+
+/**
+ * Counts the work done by a solver. The counters are plain fields incremented by the solvers themselves,
+ * so counting costs next to nothing. Measuring the time of the phases and attaching the statistics
+ * to the {@link SolveResult}s can be disabled globally using {@link #setEnabled(boolean)} or the system property
+ * {@value #ENABLED_PROPERTY}. Statistics are not thread-safe.
+ */
+public class SolveStatistics {
+
+    /**
+     * The system property disabling the statistics, if set to "false".
+     */
+    public static final String ENABLED_PROPERTY = "sudokusolver.statistics";
+
+    /**
+     * Whether solvers measure the time of their phases and strategies attach the statistics to their results.
+     */
+    private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+
+    /**
+     * The amount of propagation rounds, each placing singles until nothing changes anymore.
+     */
+    long propagationRounds;
+
+    /**
+     * The amount of naked singles placed, in total and at most within a single round.
+     */
+    long nakedSingles, maxRoundPlacements;
+
+    /**
+     * The amount of hidden singles placed.
+     */
+    long hiddenSingles;
+
+    /**
+     * The amount of candidates eliminated as locked candidates.
+     */
+    long eliminatedCandidates;
+
+    /**
+     * The amount of guesses made.
+     */
+    long guesses;
+
+    /**
+     * The amount of failed guesses that were reverted.
+     */
+    long backtracks;
+
+    /**
+     * The amount of guess levels left because all of their candidates failed.
+     */
+    long backtrackedLevels;
+
+    /**
+     * The maximum amount of open guesses at any time.
+     */
+    long maxDepth;
+
+    /**
+     * The amount of times the candidates of a {@link Field} or a column were evaluated.
+     */
+    long candidateEvaluations;
+
+    /**
+     * The nanoseconds spent placing naked singles and searching, excluding the propagation.
+     */
+    long propagationNanos, searchNanos;
+
+    /**
+     * Checks if statistics are enabled.
+     *
+     * @return true, if solvers measure time and attach their statistics to results, false, if otherwise.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the statistics of all solvers created afterwards.
+     *
+     * @param enabled Whether statistics should be enabled.
+     */
+    public static void setEnabled(boolean enabled) {
+        SolveStatistics.enabled = enabled;
+    }
+
+    /**
+     * Counts a propagation round.
+     *
+     * @param placements The amount of naked singles placed within the round.
+     */
+    void countRound(int placements) {
+        propagationRounds++;
+        nakedSingles += placements;
+
+        if(placements > maxRoundPlacements)
+            maxRoundPlacements = placements;
+    }
+
+    /**
+     * Counts a guess.
+     *
+     * @param depth The amount of open guesses including the new one.
+     */
+    void countGuess(int depth) {
+        guesses++;
+
+        if(depth > maxDepth)
+            maxDepth = depth;
+    }
+
+    /**
+     * Adds the counters of other statistics to these, keeping the larger maximums.
+     *
+     * @param statistics The statistics to be added.
+     *
+     * @return These statistics.
+     */
+    public SolveStatistics add(SolveStatistics statistics) {
+        propagationRounds += statistics.propagationRounds;
+        nakedSingles += statistics.nakedSingles;
+        maxRoundPlacements = Math.max(maxRoundPlacements, statistics.maxRoundPlacements);
+        hiddenSingles += statistics.hiddenSingles;
+        eliminatedCandidates += statistics.eliminatedCandidates;
+        guesses += statistics.guesses;
+        backtracks += statistics.backtracks;
+        backtrackedLevels += statistics.backtrackedLevels;
+        maxDepth = Math.max(maxDepth, statistics.maxDepth);
+        candidateEvaluations += statistics.candidateEvaluations;
+        propagationNanos += statistics.propagationNanos;
+        searchNanos += statistics.searchNanos;
+        return this;
+    }
+
+    /**
+     * Sets all counters back to 0.
+     */
+    void clear() {
+        propagationRounds = 0;
+        nakedSingles = 0;
+        maxRoundPlacements = 0;
+        hiddenSingles = 0;
+        eliminatedCandidates = 0;
+        guesses = 0;
+        backtracks = 0;
+        backtrackedLevels = 0;
+        maxDepth = 0;
+        candidateEvaluations = 0;
+        propagationNanos = 0;
+        searchNanos = 0;
+    }
+
+    /**
+     * Copies these statistics.
+     *
+     * @return A copy of these statistics.
+     */
+    public SolveStatistics copy() {
+        return new SolveStatistics().add(this);
+    }
+
+    /**
+     * Gets the amount of propagation rounds, each placing singles until nothing changes anymore.
+     *
+     * @return The amount of propagation rounds.
+     */
+    public long getPropagationRounds() {
+        return propagationRounds;
+    }
+
+    /**
+     * Gets the amount of naked singles placed.
+     *
+     * @return The amount of naked singles.
+     */
+    public long getNakedSingles() {
+        return nakedSingles;
+    }
+
+    /**
+     * Gets the average amount of naked singles placed per round.
+     *
+     * @return The average amount of placements per round, 0, if no round was counted.
+     */
+    public double getNakedSinglesPerRound() {
+        return propagationRounds == 0 ? 0 : (double) nakedSingles / propagationRounds;
+    }
+
+    /**
+     * Gets the maximum amount of naked singles placed within a single round.
+     *
+     * @return The maximum amount of placements per round.
+     */
+    public long getMaxRoundPlacements() {
+        return maxRoundPlacements;
+    }
+
+    /**
+     * Gets the amount of values placed because they had only one possible {@link Field} left within a unit.
+     *
+     * @return The amount of hidden singles.
+     */
+    public long getHiddenSingles() {
+        return hiddenSingles;
+    }
+
+    /**
+     * Gets the amount of candidates eliminated as locked candidates.
+     *
+     * @return The amount of eliminated candidates.
+     */
+    public long getEliminatedCandidates() {
+        return eliminatedCandidates;
+    }
+
+    /**
+     * Gets the amount of guesses made.
+     *
+     * @return The amount of guesses.
+     */
+    public long getGuesses() {
+        return guesses;
+    }
+
+    /**
+     * Gets the amount of failed guesses that were reverted.
+     *
+     * @return The amount of backtracks.
+     */
+    public long getBacktracks() {
+        return backtracks;
+    }
+
+    /**
+     * Gets the amount of guess levels left because all of their candidates failed.
+     *
+     * @return The amount of backtracked levels.
+     */
+    public long getBacktrackedLevels() {
+        return backtrackedLevels;
+    }
+
+    /**
+     * Gets the maximum amount of open guesses at any time.
+     *
+     * @return The maximum depth of the search.
+     */
+    public long getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Gets the amount of times the candidates of a {@link Field} or a column were evaluated.
+     *
+     * @return The amount of candidate evaluations.
+     */
+    public long getCandidateEvaluations() {
+        return candidateEvaluations;
+    }
+
+    /**
+     * Gets the nanoseconds spent placing naked singles, 0, if statistics are disabled.
+     *
+     * @return The nanoseconds spent propagating.
+     */
+    public long getPropagationNanos() {
+        return propagationNanos;
+    }
+
+    /**
+     * Gets the nanoseconds spent searching, excluding the propagation, 0, if statistics are disabled.
+     *
+     * @return The nanoseconds spent searching.
+     */
+    public long getSearchNanos() {
+        return searchNanos;
+    }
+
+    @Override
+    public String toString() {
+        return propagationRounds + " rounds placing " + nakedSingles + " naked singles (at most "
+                + maxRoundPlacements + " per round), " + hiddenSingles + " hidden singles, "
+                + eliminatedCandidates + " eliminated candidates, " + guesses + " guesses, " + backtracks + " backtracks over "
+                + backtrackedLevels + " levels, max depth " + maxDepth + ", " + candidateEvaluations
+                + " candidate evaluations, " + propagationNanos / 1e6 + " ms propagation, " + searchNanos / 1e6
+                + " ms search";
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+public enum SolveStatus {
+
+    /**
+     * A solution was found.
+     */
+    SOLVED,
+
+    /**
+     * The whole search space was searched without finding a solution.
+     */
+    UNSOLVABLE,
+
+    /**
+     * The search was paused before it finished and can be resumed.
+     */
+    PAUSED,
+
+    /**
+     * The search was stopped because the deadline of its {@link SolveOptions} passed.
+     */
+    TIMEOUT,
+
+    /**
+     * The search was stopped because it was cancelled or used up the guesses of its {@link SolveOptions}.
+     */
+    ABORTED
+}
@@ -0,0 +1,35 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+
+public interface SolverStrategy {
+
+    /**
+     * Solves the given {@link Sudoku}. The given sudoku is not modified.
+     *
+     * @param sudoku The sudoku to be solved.
+     *
+     * @return The result containing the status of the solve and the solution, if one was found.
+     */
+    default SolveResult solve(Sudoku sudoku) {
+        return solve(sudoku, SolveOptions.NONE);
+    }
+
+    /**
+     * Solves the given {@link Sudoku} within the limits of the given {@link SolveOptions}.
+     * The given sudoku is not modified.
+     *
+     * @param sudoku  The sudoku to be solved.
+     * @param options The limits of the solve.
+     *
+     * @return The result containing the status of the solve and the solution, if one was found.
+     *         If the solve was stopped, the status is {@link SolveStatus#TIMEOUT} or {@link SolveStatus#ABORTED}.
+     */
+    SolveResult solve(Sudoku sudoku, SolveOptions options);
+}
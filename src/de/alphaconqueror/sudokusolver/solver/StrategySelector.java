@@ -0,0 +1,112 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Field;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+import de.alphaconqueror.sudokusolver.utils.SolverManager;
+
+/**
+ * Picks a {@link SolverStrategy} for every {@link Sudoku} from cheap features:
+ * the amount of given values, the size of the sudoku and whether propagation alone solves it.
+ * <ul>
+ *     <li>Sudokus the {@link BitmaskSolver} does not support are solved by the {@link DancingLinksStrategy}
+ *     if they are square, or by the {@link SolverManager} if they are not.</li>
+ *     <li>Dense sudokus and sudokus solved by propagation are finished by the bitmask solver.</li>
+ *     <li>Small sudokus with few unsolved {@link Field}s left after propagation are finished by guessing
+ *     on the bitmask solver, everything else is solved by the dancing links strategy.</li>
+ * </ul>
+ */
+public class StrategySelector implements SolverStrategy {
+
+    /**
+     * The share of given values from which on a sudoku is considered dense.
+     */
+    private static final double DENSE_GIVEN_SHARE = 0.5;
+
+    /**
+     * The side length from which on guessing is always left to the dancing links strategy.
+     */
+    private static final int LARGE_SIZE = 16;
+
+    /**
+     * The share of unsolved fields after propagation up to which guessing on the bitmask solver stays cheap.
+     */
+    private static final double MAX_GUESSING_UNSOLVED_SHARE = 0.25;
+
+    /**
+     * The strategy used for hard and large sudokus.
+     */
+    private final DancingLinksStrategy dancingLinksStrategy = new DancingLinksStrategy();
+
+    /**
+     * The last {@link BitmaskSolver} used by every thread,
+     * reset and reused as long as the thread keeps solving sudokus of the same shape.
+     */
+    private final ThreadLocal<BitmaskSolver> solvers = new ThreadLocal<>();
+
+    @Override
+    public SolveResult solve(Sudoku sudoku, SolveOptions options) {
+        if(!BitmaskSolver.supports(sudoku)) {
+            if(sudoku.getTopology().isSquare())
+                return dancingLinksStrategy.solve(sudoku, options);
+
+            return new SolverManager(sudoku).solve(sudoku, options);
+        }
+
+        Grid grid = Grid.fromSudoku(sudoku);
+        int fieldCount = grid.getFieldCount();
+        BitmaskSolver solver = getSolver(grid);
+
+        if(grid.countValues() < fieldCount * DENSE_GIVEN_SHARE) {
+            SolveStatus status = solver.resume(0);
+
+            if(status == SolveStatus.UNSOLVABLE)
+                return SolveResult.of(status, solver.getStatistics());
+
+            if(status == SolveStatus.PAUSED && (grid.getSize() >= LARGE_SIZE
+                    || solver.getUnsolvedFieldCount() > fieldCount * MAX_GUESSING_UNSOLVED_SHARE)) {
+                SolveResult result = dancingLinksStrategy.solve(sudoku, options);
+                SolveStatistics statistics = solver.getStatistics();
+
+                if(result.getStatistics() != null)
+                    statistics.add(result.getStatistics());
+
+                return new SolveResult(result.getStatus(), result.getSolution(), statistics);
+            }
+        }
+
+        SolveStatus status = solver.solve(options);
+
+        if(status != SolveStatus.SOLVED)
+            return SolveResult.of(status, solver.getStatistics());
+
+        return new SolveResult(status, solver.writeGrid(grid).toSudoku(), solver.getStatistics());
+    }
+
+    /**
+     * Gets the {@link BitmaskSolver} of the current thread, reset to the given {@link Grid}.
+     *
+     * @param grid The grid to be solved.
+     *
+     * @return The solver starting with the values of the grid.
+     */
+    private BitmaskSolver getSolver(Grid grid) {
+        BitmaskSolver solver = solvers.get();
+
+        if(solver == null || solver.getTopology() != grid.getTopology()) {
+            solver = new BitmaskSolver(grid);
+            solvers.set(solver);
+        } else {
+            solver.reset(grid);
+            solver.clearStatistics();
+        }
+
+        return solver;
+    }
+}
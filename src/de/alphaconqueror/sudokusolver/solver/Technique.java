@@ -0,0 +1,106 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.solver;
+
+import de.alphaconqueror.sudokusolver.structure.Board;
+import de.alphaconqueror.sudokusolver.structure.Field;
+
+/**
+ * The techniques used by the {@link DifficultyRater}, ordered from the easiest to the hardest one.
+ * The rater always uses the easiest technique that makes progress.
+ */
+public enum Technique {
+
+    /**
+     * A {@link Field} has only one candidate left.
+     */
+    NAKED_SINGLE(1.0),
+
+    /**
+     * A value has only one possible {@link Field} left within a unit.
+     */
+    HIDDEN_SINGLE(1.5),
+
+    /**
+     * The candidates of a value within a {@link Board} all lie in the same row or the other way around.
+     */
+    LOCKED_CANDIDATES(2.5),
+
+    /**
+     * Two {@link Field}s of a unit share the same two candidates.
+     */
+    NAKED_PAIR(3.0),
+
+    /**
+     * Two values of a unit can only be placed in the same two {@link Field}s.
+     */
+    HIDDEN_PAIR(3.5),
+
+    /**
+     * Three {@link Field}s of a unit share three candidates.
+     */
+    NAKED_TRIPLE(4.0),
+
+    /**
+     * Three values of a unit can only be placed in the same three {@link Field}s.
+     */
+    HIDDEN_TRIPLE(4.5),
+
+    /**
+     * The candidates of a value within two rows lie in the same two crossing rows.
+     */
+    X_WING(5.0),
+
+    /**
+     * Four {@link Field}s of a unit share four candidates.
+     */
+    NAKED_QUAD(5.5),
+
+    /**
+     * Four values of a unit can only be placed in the same four {@link Field}s.
+     */
+    HIDDEN_QUAD(6.0),
+
+    /**
+     * The candidates of a value within three rows lie in the same three crossing rows.
+     */
+    SWORDFISH(6.5),
+
+    /**
+     * A {@link Field} with two candidates sees two fields, each sharing one of them and a third candidate,
+     * which is eliminated from every field seeing both.
+     */
+    XY_WING(7.0),
+
+    /**
+     * The candidates of a value within four rows lie in the same four crossing rows.
+     */
+    JELLYFISH(7.5),
+
+    /**
+     * None of the other techniques makes progress, so the rest has to be searched.
+     */
+    GUESSING(9.0);
+
+    /**
+     * The weight of the technique within the score of a {@link DifficultyRating}.
+     */
+    private final double weight;
+
+    Technique(double weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * Gets the weight of the technique within the score of a {@link DifficultyRating}.
+     *
+     * @return The weight of the technique.
+     */
+    public double getWeight() {
+        return weight;
+    }
+}
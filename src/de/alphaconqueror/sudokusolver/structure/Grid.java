@@ -0,0 +1,234 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.structure;
+
+import java.util.Arrays;
+
+public class Grid {
+
+    /**
+     * The largest side length whose values still fit into an unsigned {@code byte}.
+     */
+    private static final int MAX_BYTE_SIZE = 0xFF;
+
+    /**
+     * The {@link Topology} of the grid.
+     */
+    private final Topology topology;
+
+    /**
+     * The values of all {@link Field}s in row-major order. Only one of both arrays is used,
+     * depending on whether the values fit into an unsigned {@code byte} or not.
+     */
+    private final byte[] byteValues;
+    private final short[] shortValues;
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param topology The topology of the grid.
+     */
+    public Grid(Topology topology) {
+        this.topology = topology;
+
+        if(topology.getSize() <= MAX_BYTE_SIZE) {
+            this.byteValues = new byte[topology.getFieldCount()];
+            this.shortValues = null;
+        } else {
+            this.byteValues = null;
+            this.shortValues = new short[topology.getFieldCount()];
+        }
+    }
+
+    private Grid(Topology topology, byte[] byteValues, short[] shortValues) {
+        this.topology = topology;
+        this.byteValues = byteValues;
+        this.shortValues = shortValues;
+    }
+
+    /**
+     * Creates a grid containing the values of a {@link Sudoku}.
+     *
+     * @param sudoku The sudoku to be converted.
+     *
+     * @return The grid containing the values of the sudoku.
+     */
+    public static Grid fromSudoku(Sudoku sudoku) {
+        return fromSudoku(sudoku, sudoku.getTopology());
+    }
+
+    /**
+     * Creates a grid containing the values of a {@link Sudoku}, sharing an existing {@link Topology}.
+     *
+     * @param sudoku   The sudoku to be converted.
+     * @param topology The topology of the sudoku.
+     *
+     * @return The grid containing the values of the sudoku.
+     *
+     * @throws IllegalArgumentException if the sudoku does not match the topology or is not square
+     */
+    public static Grid fromSudoku(Sudoku sudoku, Topology topology) {
+        if(sudoku.getTopology() != topology || !topology.isSquare())
+            throw new IllegalArgumentException("The sudoku does not match the topology of the grid.");
+
+        Grid grid = new Grid(topology);
+
+        for(int fieldIndex = 0; fieldIndex < topology.getFieldCount(); fieldIndex++)
+            grid.setValue(fieldIndex, sudoku.getField(fieldIndex).getValue());
+
+        return grid;
+    }
+
+    /**
+     * Creates a {@link Sudoku} containing the values of this grid.
+     *
+     * @return The sudoku containing the values of the grid.
+     */
+    public Sudoku toSudoku() {
+        int size = topology.getSize();
+        Sudoku sudoku = new Sudoku(topology.getBoardWidth(), topology.getBoardHeight(), size, size);
+
+        for(int y = 0; y < size; y++) {
+            for(int x = 0; x < size; x++) {
+                int value = getValue(x + y * size);
+
+                if(value != 0)
+                    sudoku.setFieldValueAt(x, y, value);
+            }
+        }
+
+        return sudoku;
+    }
+
+    /**
+     * Gets the value of a {@link Field}, 0 if it does not have one.
+     *
+     * @param fieldIndex The index of the field in row-major order.
+     *
+     * @return The value of the field.
+     */
+    public int getValue(int fieldIndex) {
+        return byteValues != null ? byteValues[fieldIndex] & 0xFF : shortValues[fieldIndex] & 0xFFFF;
+    }
+
+    /**
+     * Gets the value of the {@link Field} at the coordinates.
+     *
+     * @param x The coordinate of the field referring to the horizontal axis.
+     * @param y The coordinate of the field referring to the vertical axis.
+     *
+     * @return The value of the field.
+     */
+    public int getValue(int x, int y) {
+        return getValue(x + y * topology.getSize());
+    }
+
+    /**
+     * Sets the value of a {@link Field}. Unlike the fields of a {@link Sudoku}, values may be overwritten.
+     *
+     * @param fieldIndex The index of the field in row-major order.
+     * @param value      The value to be set, 0 to clear the field.
+     *
+     * @throws IndexOutOfBoundsException if the value is out of bounds
+     */
+    public void setValue(int fieldIndex, int value) {
+        if(value < 0 || value > topology.getSize())
+            throw new IndexOutOfBoundsException("The value '" + value + "' at x = "
+                    + (fieldIndex % topology.getSize() + 1) + " | y = " + (fieldIndex / topology.getSize() + 1)
+                    + " is out of bounds [1," + topology.getSize() + "].");
+
+        if(byteValues != null)
+            byteValues[fieldIndex] = (byte) value;
+        else
+            shortValues[fieldIndex] = (short) value;
+    }
+
+    /**
+     * Sets the value of the {@link Field} at the coordinates.
+     *
+     * @param x     The coordinate of the field referring to the horizontal axis.
+     * @param y     The coordinate of the field referring to the vertical axis.
+     * @param value The value to be set, 0 to clear the field.
+     */
+    public void setValue(int x, int y, int value) {
+        setValue(x + y * topology.getSize(), value);
+    }
+
+    /**
+     * Counts the {@link Field}s that have a value.
+     *
+     * @return The amount of fields with a value.
+     */
+    public int countValues() {
+        int count = 0;
+
+        for(int i = 0; i < topology.getFieldCount(); i++) {
+            if(getValue(i) != 0)
+                count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the {@link Topology} of the grid.
+     *
+     * @return The topology of the grid.
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Gets the side length of the grid in amount of {@link Field}s, which equals the amount of possible values.
+     *
+     * @return The side length of the grid in amount of fields.
+     */
+    public int getSize() {
+        return topology.getSize();
+    }
+
+    /**
+     * Gets the amount of {@link Field}s of the grid.
+     *
+     * @return The amount of fields.
+     */
+    public int getFieldCount() {
+        return topology.getFieldCount();
+    }
+
+    /**
+     * Copies this grid. The copy shares the {@link Topology} of this grid.
+     *
+     * @return A copy of this grid.
+     */
+    public Grid copy() {
+        return new Grid(topology, byteValues != null ? byteValues.clone() : null,
+                shortValues != null ? shortValues.clone() : null);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o)
+            return true;
+
+        if(!(o instanceof Grid))
+            return false;
+
+        Grid grid = (Grid) o;
+
+        return topology.getBoardWidth() == grid.topology.getBoardWidth()
+                && topology.getBoardHeight() == grid.topology.getBoardHeight()
+                && Arrays.equals(byteValues, grid.byteValues) && Arrays.equals(shortValues, grid.shortValues);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * topology.getBoardWidth() + topology.getBoardHeight())
+                + (byteValues != null ? Arrays.hashCode(byteValues) : Arrays.hashCode(shortValues));
+    }
+}
@@ -21,6 +21,11 @@ public class Sudoku {
      */
     private final int width, height;
 
+    /**
+     * The {@link Topology} shared by all sudokus of the same shape.
+     */
+    private final Topology topology;
+
     /**
      * A {@link List} of all {@link Board}s on the sudoku.
      */
@@ -32,22 +37,23 @@ public class Sudoku {
         this.boardHeight = boardHeight;
 
         checkBoardInput();
+        checkSudokuInput(width, height);
 
         this.width = Math.floorDiv(width, boardWidth);
         this.height = Math.floorDiv(height, boardHeight);
-
-        checkSudokuInput();
+        this.topology = Topology.of(boardWidth, boardHeight, this.width, this.height);
 
         this.boards = new ArrayList<>();
 
         initBoards();
     }
 
-    private Sudoku(int boardWidth, int boardHeight, int width, int height, List<Board> boards) {
-        this.boardWidth = boardWidth;
-        this.boardHeight = boardHeight;
-        this.width = width;
-        this.height = height;
+    private Sudoku(Sudoku sudoku, List<Board> boards) {
+        this.boardWidth = sudoku.boardWidth;
+        this.boardHeight = sudoku.boardHeight;
+        this.width = sudoku.width;
+        this.height = sudoku.height;
+        this.topology = sudoku.topology;
         this.boards = boards;
     }
 
@@ -66,19 +72,23 @@ public class Sudoku {
     /**
      * Checks if width and height are allowed.
      *
-     * @throws IllegalArgumentException if the width or height is smaller than 2.
+     * @param width  The width of the sudoku in amount of fields.
+     * @param height The height of the sudoku in amount of fields.
+     *
+     * @throws IllegalArgumentException if the width or height is not a multiple of the board width or height
+     * @throws IllegalArgumentException if the width or height is smaller than 2 boards.
      */
-    private void checkSudokuInput() {
-        if(width < 2)
-            throw new IllegalArgumentException("The width can not be smaller than 2.");
-        if(height < 2)
-            throw new IllegalArgumentException("The height can not be smaller than 2.");
-
+    private void checkSudokuInput(int width, int height) {
         if(width % boardWidth != 0)
             throw new IllegalArgumentException("The width has to be a multiple of the board width.");
 
         if(height % boardHeight != 0)
             throw new IllegalArgumentException("The height has to be a multiple of the board height.");
+
+        if(width / boardWidth < 2)
+            throw new IllegalArgumentException("The width can not be smaller than 2.");
+        if(height / boardHeight < 2)
+            throw new IllegalArgumentException("The height can not be smaller than 2.");
     }
 
     /**
@@ -117,7 +127,7 @@ public class Sudoku {
      * @usage {@code getBoardAt([0, width * board width - 1], [0, height * board height - 1])}
      */
     public Board getBoardAt(int x, int y) {
-        return getBoard(Math.floorDiv(x, boardWidth), Math.floorDiv(y, boardHeight));
+        return boards.get(topology.getBoardIndex(topology.getFieldIndex(x, y)));
     }
 
     /**
@@ -131,7 +141,18 @@ public class Sudoku {
      * @usage {@code getFieldAt([0, width * board width - 1], [0, height * board height - 1])}
      */
     public Field getFieldAt(int x, int y) {
-        return getBoardAt(x, y).getField(x % boardWidth, y % boardHeight);
+        return getField(topology.getFieldIndex(x, y));
+    }
+
+    /**
+     * Gets the {@link Field} with the given index.
+     *
+     * @param fieldIndex The index of the field in row-major order, see {@link Topology}.
+     *
+     * @return The field with the index.
+     */
+    public Field getField(int fieldIndex) {
+        return boards.get(topology.getBoardIndex(fieldIndex)).getFields().get(topology.getBoardFieldIndex(fieldIndex));
     }
 
     /**
@@ -183,6 +204,15 @@ public class Sudoku {
         return height;
     }
 
+    /**
+     * Gets the {@link Topology} of the sudoku, which is shared by all sudokus of the same shape.
+     *
+     * @return The topology of the sudoku.
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
     /**
      * Gets a {@link List} of all {@link Board}s on the sudoku.
      *
@@ -202,6 +232,6 @@ public class Sudoku {
 
         boards.forEach(board -> boardClones.add(board.clone()));
 
-        return new Sudoku(boardWidth, boardHeight, width, height, boardClones);
+        return new Sudoku(this, boardClones);
     }
 }
@@ -0,0 +1,442 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.structure;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The precomputed index tables of a sudoku shape. Topologies are immutable and cached,
+ * so all sudokus and {@link Grid}s of the same shape share one, see {@link #of(int, int, int, int)}.
+ * The {@link Field}s are indexed in row-major order, starting with 0 in the top left corner.
+ */
+public class Topology {
+
+    /**
+     * The topologies created so far by their board width, board height, width and height.
+     */
+    private static final ConcurrentMap<List<Integer>, Topology> TOPOLOGIES = new ConcurrentHashMap<>();
+
+    /**
+     * The width and height of every {@link Board} in amount of {@link Field}s.
+     */
+    private final int boardWidth, boardHeight;
+
+    /**
+     * The width and height of the sudoku in amount of {@link Board}s.
+     */
+    private final int width, height;
+
+    /**
+     * The amount of {@link Field}s of every {@link Board}, which equals the side length
+     * and the amount of possible values of square sudokus.
+     */
+    private final int size;
+
+    /**
+     * The width and height of the sudoku in amount of {@link Field}s.
+     */
+    private final int fieldWidth, fieldHeight;
+
+    /**
+     * The amount of {@link Field}s and the amount of peers of every field.
+     */
+    private final int fieldCount, peerCount;
+
+    /**
+     * The index of the horizontal row, vertical row and {@link Board} every {@link Field} belongs to
+     * and the index of every field within its board in row-major order.
+     */
+    private final int[] horizontalRowIndexes, verticalRowIndexes, boardIndexes, boardFieldIndexes;
+
+    /**
+     * The field indexes of every unit. The horizontal rows come first, followed by the vertical rows
+     * and the {@link Board}s. The indexes of a unit are sorted in ascending order.
+     */
+    private final int[] units;
+
+    /**
+     * The index of the first field index of every unit in {@link #units}, followed by the length of the array.
+     */
+    private final int[] unitStarts;
+
+    /**
+     * The field indexes of the peers of every field, {@code peerCount} indexes per field.
+     * A peer is every other field sharing a row or a board with the field.
+     */
+    private final int[] peers;
+
+    /**
+     * @param boardWidth  The width of every board in amount of fields.
+     * @param boardHeight The height of every board in amount of fields.
+     * @param width       The width of the sudoku in amount of boards.
+     * @param height      The height of the sudoku in amount of boards.
+     */
+    private Topology(int boardWidth, int boardHeight, int width, int height) {
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+        this.width = width;
+        this.height = height;
+        this.size = boardWidth * boardHeight;
+        this.fieldWidth = width * boardWidth;
+        this.fieldHeight = height * boardHeight;
+        this.fieldCount = fieldWidth * fieldHeight;
+        this.peerCount = fieldWidth + fieldHeight - 2 + (boardWidth - 1) * (boardHeight - 1);
+        this.horizontalRowIndexes = new int[fieldCount];
+        this.verticalRowIndexes = new int[fieldCount];
+        this.boardIndexes = new int[fieldCount];
+        this.boardFieldIndexes = new int[fieldCount];
+        this.units = new int[3 * fieldCount];
+        this.unitStarts = new int[fieldHeight + fieldWidth + width * height + 1];
+        this.peers = new int[fieldCount * peerCount];
+
+        initIndexes();
+        initUnits();
+        initPeers();
+    }
+
+    /**
+     * Gets the topology of a square sudoku made of {@link Board}s with the given dimensions.
+     *
+     * @param boardWidth  The width of every board in amount of fields.
+     * @param boardHeight The height of every board in amount of fields.
+     *
+     * @return The shared topology of the shape.
+     *
+     * @throws IllegalArgumentException if the board width or height is smaller than 2
+     */
+    public static Topology of(int boardWidth, int boardHeight) {
+        return of(boardWidth, boardHeight, boardHeight, boardWidth);
+    }
+
+    /**
+     * Gets the topology of a sudoku shape, creating it only for the first sudoku of the shape.
+     *
+     * @param boardWidth  The width of every board in amount of fields.
+     * @param boardHeight The height of every board in amount of fields.
+     * @param width       The width of the sudoku in amount of boards.
+     * @param height      The height of the sudoku in amount of boards.
+     *
+     * @return The shared topology of the shape.
+     *
+     * @throws IllegalArgumentException if the board width or height is smaller than 2
+     * @throws IllegalArgumentException if the width or height is smaller than 2
+     * @throws IllegalArgumentException if the sudoku has more fields than can be indexed
+     */
+    public static Topology of(int boardWidth, int boardHeight, int width, int height) {
+        if(boardWidth < 2)
+            throw new IllegalArgumentException("The board width can not be smaller than 2.");
+        if(boardHeight < 2)
+            throw new IllegalArgumentException("The board height can not be smaller than 2.");
+
+        if(width < 2)
+            throw new IllegalArgumentException("The width can not be smaller than 2.");
+        if(height < 2)
+            throw new IllegalArgumentException("The height can not be smaller than 2.");
+
+        if((long) width * boardWidth * height * boardHeight > Integer.MAX_VALUE / 3)
+            throw new IllegalArgumentException("The sudoku has too many fields.");
+
+        return TOPOLOGIES.computeIfAbsent(Arrays.asList(boardWidth, boardHeight, width, height),
+                key -> new Topology(boardWidth, boardHeight, width, height));
+    }
+
+    /**
+     * Initializes the row and {@link Board} index of every {@link Field}.
+     */
+    private void initIndexes() {
+        for(int fieldIndex = 0; fieldIndex < fieldCount; fieldIndex++) {
+            int x = fieldIndex % fieldWidth,
+                y = fieldIndex / fieldWidth;
+
+            horizontalRowIndexes[fieldIndex] = y;
+            verticalRowIndexes[fieldIndex] = x;
+            boardIndexes[fieldIndex] = x / boardWidth + (y / boardHeight) * width;
+            boardFieldIndexes[fieldIndex] = x % boardWidth + (y % boardHeight) * boardWidth;
+        }
+    }
+
+    /**
+     * Initializes the {@link Field} indexes of every unit.
+     */
+    private void initUnits() {
+        int unitCount = getUnitCount();
+        int[] unitSizes = new int[unitCount];
+
+        for(int unit = 0; unit < unitCount; unit++)
+            unitStarts[unit + 1] = unitStarts[unit] + (unit < fieldHeight ? fieldWidth
+                    : unit < fieldHeight + fieldWidth ? fieldHeight : size);
+
+        for(int fieldIndex = 0; fieldIndex < fieldCount; fieldIndex++) {
+            int horizontalUnit = getHorizontalRowUnit(fieldIndex),
+                verticalUnit = getVerticalRowUnit(fieldIndex),
+                boardUnit = getBoardUnit(fieldIndex);
+
+            units[unitStarts[horizontalUnit] + unitSizes[horizontalUnit]++] = fieldIndex;
+            units[unitStarts[verticalUnit] + unitSizes[verticalUnit]++] = fieldIndex;
+            units[unitStarts[boardUnit] + unitSizes[boardUnit]++] = fieldIndex;
+        }
+    }
+
+    /**
+     * Initializes the peers of every {@link Field}.
+     */
+    private void initPeers() {
+        boolean[] isPeer = new boolean[fieldCount];
+
+        for(int fieldIndex = 0; fieldIndex < fieldCount; fieldIndex++) {
+            int offset = fieldIndex * peerCount, count = 0;
+
+            for(int unit : new int[] {getHorizontalRowUnit(fieldIndex), getVerticalRowUnit(fieldIndex),
+                    getBoardUnit(fieldIndex)}) {
+                for(int i = unitStarts[unit]; i < unitStarts[unit + 1]; i++) {
+                    int peer = units[i];
+
+                    if(peer != fieldIndex && !isPeer[peer]) {
+                        isPeer[peer] = true;
+                        peers[offset + count++] = peer;
+                    }
+                }
+            }
+
+            for(int i = offset; i < offset + count; i++)
+                isPeer[peers[i]] = false;
+
+            Arrays.sort(peers, offset, offset + count);
+        }
+    }
+
+    /**
+     * Gets the width of the {@link Board}s in amount of {@link Field}s.
+     *
+     * @return The width of the boards in amount of fields.
+     */
+    public int getBoardWidth() {
+        return boardWidth;
+    }
+
+    /**
+     * Gets the height of the {@link Board}s in amount of {@link Field}s.
+     *
+     * @return The height of the boards in amount of fields.
+     */
+    public int getBoardHeight() {
+        return boardHeight;
+    }
+
+    /**
+     * Gets the width of the sudoku in amount of {@link Board}s.
+     *
+     * @return The width of the sudoku in amount of boards.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the sudoku in amount of {@link Board}s.
+     *
+     * @return The height of the sudoku in amount of boards.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the amount of {@link Field}s of every {@link Board},
+     * which equals the side length and the amount of possible values of square sudokus.
+     *
+     * @return The amount of fields of a board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the width of the sudoku in amount of {@link Field}s, which is the length of every horizontal row.
+     *
+     * @return The width of the sudoku in amount of fields.
+     */
+    public int getFieldWidth() {
+        return fieldWidth;
+    }
+
+    /**
+     * Gets the height of the sudoku in amount of {@link Field}s, which is the length of every vertical row.
+     *
+     * @return The height of the sudoku in amount of fields.
+     */
+    public int getFieldHeight() {
+        return fieldHeight;
+    }
+
+    /**
+     * Checks if the sudoku is square, i.e. every horizontal row, vertical row and {@link Board}
+     * has as many {@link Field}s as there are possible values.
+     *
+     * @return true, if the sudoku is square, false, if otherwise.
+     */
+    public boolean isSquare() {
+        return fieldWidth == size && fieldHeight == size;
+    }
+
+    /**
+     * Gets the index of the {@link Field} at the coordinates.
+     *
+     * @param x The coordinate of the field referring to the horizontal axis.
+     * @param y The coordinate of the field referring to the vertical axis.
+     *
+     * @return The index of the field.
+     *
+     * @throws IndexOutOfBoundsException if the coordinates are out of bounds
+     */
+    public int getFieldIndex(int x, int y) {
+        if(x < 0 || y < 0 || x > fieldWidth - 1 || y > fieldHeight - 1)
+            throw new IndexOutOfBoundsException("The field at x = " + x + " | y = " + y + " is not available.");
+
+        return x + y * fieldWidth;
+    }
+
+    /**
+     * Gets the amount of {@link Field}s of the sudoku.
+     *
+     * @return The amount of fields.
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Gets the amount of units, which are all horizontal rows, vertical rows and {@link Board}s.
+     *
+     * @return The amount of units.
+     */
+    public int getUnitCount() {
+        return unitStarts.length - 1;
+    }
+
+    /**
+     * Gets the amount of peers every {@link Field} has.
+     *
+     * @return The amount of peers of a field.
+     */
+    public int getPeerCount() {
+        return peerCount;
+    }
+
+    /**
+     * Gets the index of the horizontal row a {@link Field} belongs to.
+     *
+     * @param fieldIndex The index of the field.
+     *
+     * @return The index of the horizontal row.
+     */
+    public int getHorizontalRowIndex(int fieldIndex) {
+        return horizontalRowIndexes[fieldIndex];
+    }
+
+    /**
+     * Gets the index of the vertical row a {@link Field} belongs to.
+     *
+     * @param fieldIndex The index of the field.
+     *
+     * @return The index of the vertical row.
+     */
+    public int getVerticalRowIndex(int fieldIndex) {
+        return verticalRowIndexes[fieldIndex];
+    }
+
+    /**
+     * Gets the index of the {@link Board} a {@link Field} belongs to.
+     *
+     * @param fieldIndex The index of the field.
+     *
+     * @return The index of the board.
+     */
+    public int getBoardIndex(int fieldIndex) {
+        return boardIndexes[fieldIndex];
+    }
+
+    /**
+     * Gets the index of a {@link Field} within its {@link Board} in row-major order.
+     *
+     * @param fieldIndex The index of the field.
+     *
+     * @return The index of the field within its board.
+     */
+    public int getBoardFieldIndex(int fieldIndex) {
+        return boardFieldIndexes[fieldIndex];
+    }
+
+    /**
+     * Gets the unit of the horizontal row a {@link Field} belongs to.
+     *
+     * @param fieldIndex The index of the field.
+     *
+     * @return The index of the unit as used by {@link #getUnits()}.
+     */
+    public int getHorizontalRowUnit(int fieldIndex) {
+        return horizontalRowIndexes[fieldIndex];
+    }
+
+    /**
+     * Gets the unit of the vertical row a {@link Field} belongs to.
+     *
+     * @param fieldIndex The index of the field.
+     *
+     * @return The index of the unit as used by {@link #getUnits()}.
+     */
+    public int getVerticalRowUnit(int fieldIndex) {
+        return fieldHeight + verticalRowIndexes[fieldIndex];
+    }
+
+    /**
+     * Gets the unit of the {@link Board} a {@link Field} belongs to.
+     *
+     * @param fieldIndex The index of the field.
+     *
+     * @return The index of the unit as used by {@link #getUnits()}.
+     */
+    public int getBoardUnit(int fieldIndex) {
+        return fieldHeight + fieldWidth + boardIndexes[fieldIndex];
+    }
+
+    /**
+     * Gets the {@link Field} indexes of all units. The indexes of unit u are stored
+     * from {@code getUnitStart(u)} to {@code getUnitStart(u + 1) - 1}. The horizontal rows come first,
+     * followed by the vertical rows and the {@link Board}s. For square sudokus, the indexes of unit u
+     * are stored from {@code u * size} to {@code (u + 1) * size - 1}.
+     *
+     * @return The field indexes of all units. The returned array must not be modified.
+     */
+    public int[] getUnits() {
+        return units;
+    }
+
+    /**
+     * Gets the position of the first {@link Field} index of a unit in {@link #getUnits()}.
+     *
+     * @param unit The index of the unit, {@link #getUnitCount()} for the end of the last unit.
+     *
+     * @return The position of the first field index of the unit.
+     */
+    public int getUnitStart(int unit) {
+        return unitStarts[unit];
+    }
+
+    /**
+     * Gets the peers of all {@link Field}s. The peers of field i are stored
+     * from {@code i * peerCount} to {@code (i + 1) * peerCount - 1}.
+     *
+     * @return The peers of all fields. The returned array must not be modified.
+     */
+    public int[] getPeers() {
+        return peers;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.solver.CancellationToken;
+import de.alphaconqueror.sudokusolver.solver.SolveOptions;
+import de.alphaconqueror.sudokusolver.solver.SolveResult;
+import de.alphaconqueror.sudokusolver.solver.SolverStrategy;
+import de.alphaconqueror.sudokusolver.solver.StrategySelector;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Solves {@link Sudoku}s asynchronously on an {@link Executor}, so callers never block while a sudoku is solved.
+ * Every solve returns a {@link CompletableFuture}, streams of sudokus are solved a few at a time
+ * and passed to a consumer in input order. Completing a future in any other way, e.g. by cancelling it,
+ * stops its solve at the next check of its {@link SolveOptions}. A single manager can be shared by any amount
+ * of callers. The default {@link StrategySelector} keeps the solvers of every worker thread and reuses them
+ * for the next sudoku of the same shape, so pooled threads solve without allocating new solvers.
+ */
+public class AsyncSolverManager {
+
+    /**
+     * The strategy used to solve every sudoku.
+     */
+    private final SolverStrategy strategy;
+
+    /**
+     * The executor the sudokus are solved on.
+     */
+    private final Executor executor;
+
+    /**
+     * The maximum amount of sudokus of a stream being solved or waiting to be delivered.
+     */
+    private final int maxPending;
+
+    public AsyncSolverManager() {
+        this(new StrategySelector(), ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * @param strategy   The strategy used to solve every sudoku, which has to be thread-safe.
+     * @param executor   The executor the sudokus are solved on.
+     * @param maxPending The maximum amount of sudokus of a stream being solved or waiting to be delivered.
+     */
+    public AsyncSolverManager(SolverStrategy strategy, Executor executor, int maxPending) {
+        if(maxPending < 1)
+            throw new IllegalArgumentException("The amount of pending sudokus has to be at least 1.");
+
+        this.strategy = strategy;
+        this.executor = executor;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Solves the given {@link Sudoku} asynchronously, see {@link #solve(Sudoku, SolveOptions)}.
+     *
+     * @param sudoku The sudoku to be solved, which must not be modified until the future is completed.
+     *
+     * @return The future of the result.
+     */
+    public CompletableFuture<SolveResult> solve(Sudoku sudoku) {
+        return solve(sudoku, SolveOptions.NONE);
+    }
+
+    /**
+     * Solves the given {@link Sudoku} asynchronously within the limits of the given {@link SolveOptions}.
+     * The solve is stopped as soon as the returned future is completed by anything but the solve itself,
+     * in addition to the token of the options, if there is one.
+     *
+     * @param sudoku  The sudoku to be solved, which must not be modified until the future is completed.
+     * @param options The limits of the solve.
+     *
+     * @return The future of the result, completed exceptionally, if the executor rejected the solve.
+     */
+    public CompletableFuture<SolveResult> solve(Sudoku sudoku, SolveOptions options) {
+        CancellationToken token = new CancellationToken(options.getToken());
+        SolveOptions solveOptions = options.withToken(token);
+        CompletableFuture<SolveResult> future;
+
+        try {
+            future = CompletableFuture.supplyAsync(() -> strategy.solve(sudoku, solveOptions), executor);
+        } catch(RejectedExecutionException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+
+            return future;
+        }
+
+        future.whenComplete((result, error) -> token.cancel());
+
+        return future;
+    }
+
+    /**
+     * Solves a stream of sudokus, e.g. the ones of a {@link PuzzleReader}, and passes the results
+     * to the given consumer in input order. The sudokus are read lazily and at most {@link #maxPending}
+     * of them are solved or waiting to be passed on at once, so a slow consumer slows down the reading.
+     * The consumer is never called concurrently. Cancelling the returned future stops all running solves.
+     * If a sudoku could not be read or solved or the consumer failed, the running solves are stopped
+     * and the returned future is completed with the error.
+     *
+     * @param grids    The sudokus, consumed lazily on the threads passing on the results.
+     * @param options  The limits shared by all solves, e.g. a deadline for the whole stream.
+     * @param consumer The consumer of the results.
+     *
+     * @return The future completed after all results have been passed on.
+     */
+    public CompletableFuture<Void> solveAll(Iterator<Grid> grids, SolveOptions options,
+                                            Consumer<? super SolveResult> consumer) {
+        SolveStream stream = new SolveStream(grids, options, consumer);
+
+        stream.completion.whenComplete((result, error) -> stream.drain());
+        stream.drain();
+
+        return stream.completion;
+    }
+
+    /**
+     * Solves the sudokus of a stream for a consumer. The consumer is only called by {@link #drain()},
+     * which is never run by two threads at once, so it is never called concurrently.
+     */
+    private class SolveStream {
+
+        /**
+         * The sudokus not read yet.
+         */
+        private final Iterator<Grid> grids;
+
+        /**
+         * The limits shared by all solves.
+         */
+        private final SolveOptions options;
+
+        /**
+         * The consumer of the results.
+         */
+        private final Consumer<? super SolveResult> consumer;
+
+        /**
+         * The future completed after all results have been passed on.
+         */
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        /**
+         * The futures of the sudokus being solved or waiting to be passed on, in input order.
+         * Only accessed by {@link #drain()}.
+         */
+        private final Deque<CompletableFuture<SolveResult>> pending = new ArrayDeque<>();
+
+        /**
+         * The amount of calls of {@link #drain()} not handled yet.
+         */
+        private final AtomicInteger drains = new AtomicInteger();
+
+        /**
+         * Whether all sudokus have been read, and the error that stopped the reading, null, if there was none.
+         * Only accessed by {@link #drain()}.
+         */
+        private boolean exhausted;
+        private RuntimeException readError;
+
+        /**
+         * @param grids    The sudokus, consumed lazily.
+         * @param options  The limits shared by all solves.
+         * @param consumer The consumer of the results.
+         */
+        private SolveStream(Iterator<Grid> grids, SolveOptions options, Consumer<? super SolveResult> consumer) {
+            this.grids = grids;
+            this.options = options;
+            this.consumer = consumer;
+        }
+
+        /**
+         * Passes on the finished results and starts new solves, until there is nothing left to be done.
+         * Calls made while another thread drains only make that thread drain once more.
+         */
+        private void drain() {
+            if(drains.getAndIncrement() != 0)
+                return;
+
+            do {
+                if(completion.isDone())
+                    stop();
+                else
+                    step();
+            } while(drains.decrementAndGet() != 0);
+        }
+
+        /**
+         * Passes on the finished results at the front of the queue and starts new solves until the queue
+         * holds as many sudokus as allowed. A sudoku that could not be read ends the stream
+         * after the results of the sudokus before it.
+         */
+        private void step() {
+            try {
+                while(!pending.isEmpty() && pending.peekFirst().isDone()) {
+                    consumer.accept(pending.pollFirst().join());
+
+                    if(completion.isDone()) {
+                        stop();
+                        return;
+                    }
+                }
+            } catch(CompletionException e) {
+                fail(e.getCause());
+                return;
+            } catch(RuntimeException e) {
+                fail(e);
+                return;
+            }
+
+            try {
+                while(!exhausted && pending.size() < maxPending) {
+                    if(!grids.hasNext()) {
+                        exhausted = true;
+                        break;
+                    }
+
+                    CompletableFuture<SolveResult> future = solve(grids.next().toSudoku(), options);
+
+                    pending.addLast(future);
+                    future.whenComplete((result, error) -> drain());
+                }
+            } catch(RuntimeException e) {
+                readError = e;
+                exhausted = true;
+            }
+
+            if(pending.isEmpty() && exhausted) {
+                if(readError != null)
+                    completion.completeExceptionally(readError);
+                else
+                    completion.complete(null);
+            }
+        }
+
+        /**
+         * Stops all running solves.
+         */
+        private void stop() {
+            pending.forEach(future -> future.cancel(false));
+            pending.clear();
+        }
+
+        /**
+         * Stops all running solves and completes the stream with an error.
+         *
+         * @param error The error.
+         */
+        private void fail(Throwable error) {
+            stop();
+            completion.completeExceptionally(error);
+        }
+    }
+}
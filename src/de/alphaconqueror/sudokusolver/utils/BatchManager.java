@@ -0,0 +1,427 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.solver.DifficultyRater;
+import de.alphaconqueror.sudokusolver.solver.DifficultyRating;
+import de.alphaconqueror.sudokusolver.solver.SolveResult;
+import de.alphaconqueror.sudokusolver.solver.SolveStatus;
+import de.alphaconqueror.sudokusolver.solver.SolverStrategy;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Reads and solves or rates many {@link Sudoku}s concurrently on a fixed amount of worker threads.
+ * At most a bounded amount of sudokus is read, solved or waiting to be written at any time,
+ * so the memory used does not grow with the amount of input. Results are written in input order.
+ */
+public class BatchManager {
+
+    /**
+     * The strategy used to solve every sudoku.
+     */
+    private final SolverStrategy strategy;
+
+    /**
+     * The amount of worker threads.
+     */
+    private final int threads;
+
+    /**
+     * The maximum amount of sudokus being solved or waiting to be written.
+     */
+    private final int maxPending;
+
+    /**
+     * @param strategy   The strategy used to solve every sudoku, which has to be thread-safe.
+     * @param threads    The amount of worker threads.
+     * @param maxPending The maximum amount of sudokus being solved or waiting to be written.
+     */
+    public BatchManager(SolverStrategy strategy, int threads, int maxPending) {
+        if(threads < 1)
+            throw new IllegalArgumentException("The amount of threads has to be at least 1.");
+        if(maxPending < threads)
+            throw new IllegalArgumentException("The amount of pending sudokus can not be smaller "
+                    + "than the amount of threads.");
+
+        this.strategy = strategy;
+        this.threads = threads;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Reads, solves and writes the sudokus of all files.
+     * Every result starts with a line containing the path and the status, followed by the solution
+     * in the format read by {@link IOManager#readSudoku(String)}, if one was found.
+     *
+     * @param paths The paths to the files, consumed lazily.
+     * @param out   The stream the results are written to.
+     *
+     * @return The report of the batch.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting for a result
+     */
+    public BatchReport solveAll(Iterator<String> paths, PrintStream out) throws InterruptedException {
+        return solve(paths, (index, path) -> new SolveTask(path), out);
+    }
+
+    /**
+     * Solves and writes already read sudokus, e.g. the ones of a {@link PuzzleReader}.
+     * Every result starts with a line containing the position of the sudoku, starting at 1, and the status,
+     * followed by the solution in the given format, if one was found.
+     *
+     * @param grids  The sudokus, consumed lazily.
+     * @param format The format the solutions are written in.
+     * @param out    The stream the results are written to.
+     *
+     * @return The report of the batch.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting for a result
+     */
+    public BatchReport solveAll(Iterator<Grid> grids, PuzzleReader.Format format, PrintStream out)
+            throws InterruptedException {
+        return solve(grids, (index, grid) -> new GridTask(index, grid, format), out);
+    }
+
+    /**
+     * Rates already read sudokus, e.g. the ones of a {@link PuzzleReader}, see {@link DifficultyRater}.
+     * Every result is a line containing the position of the sudoku, starting at 1, and its rating.
+     *
+     * @param grids The sudokus, consumed lazily.
+     * @param rater The rater of the sudokus.
+     * @param out   The stream the results are written to.
+     *
+     * @return The report of the batch.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting for a result
+     */
+    public BatchReport rateAll(Iterator<Grid> grids, DifficultyRater rater, PrintStream out)
+            throws InterruptedException {
+        return solve(grids, (index, grid) -> new RateTask(index, grid, rater), out);
+    }
+
+    /**
+     * Submits a task for every input, keeping at most {@link #maxPending} tasks pending,
+     * and writes the results in input order.
+     *
+     * @param inputs      The inputs, consumed lazily.
+     * @param taskFactory Creates the task of an input from its position, starting at 1, and the input itself.
+     * @param out         The stream the results are written to.
+     * @param <T>         The type of the inputs.
+     *
+     * @return The report of the batch.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting for a result
+     */
+    private <T> BatchReport solve(Iterator<T> inputs, BiFunction<Long, T, Callable<Outcome>> taskFactory,
+                                  PrintStream out) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Deque<Future<Outcome>> pending = new ArrayDeque<>();
+        BatchReport report = new BatchReport();
+        long start = System.nanoTime(),
+             index = 0;
+
+        try {
+            while(inputs.hasNext()) {
+                T input = inputs.next();
+
+                if(pending.size() >= maxPending)
+                    write(pending.poll(), out, report);
+
+                pending.add(executor.submit(taskFactory.apply(++index, input)));
+
+                while(!pending.isEmpty() && pending.peek().isDone())
+                    write(pending.poll(), out, report);
+            }
+
+            while(!pending.isEmpty())
+                write(pending.poll(), out, report);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        report.setNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    /**
+     * Waits for a result, writes it and counts it.
+     *
+     * @param future The future of the result.
+     * @param out    The stream the result is written to.
+     * @param report The report counting the result.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting for the result
+     */
+    private void write(Future<Outcome> future, PrintStream out, BatchReport report) throws InterruptedException {
+        Outcome outcome;
+
+        try {
+            outcome = future.get();
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("A sudoku could not be processed.", e.getCause());
+        }
+
+        out.print(outcome.text);
+        report.count(outcome.status);
+    }
+
+    /**
+     * Lists the paths of all files given by the inputs lazily. An input is either a file,
+     * a directory whose regular files are all included, or "-" to read one path per line from the standard input.
+     *
+     * @param inputs The inputs.
+     *
+     * @return An iterator over the paths of all files.
+     */
+    public static Iterator<String> listPaths(String... inputs) {
+        return new PathIterator(inputs);
+    }
+
+    /**
+     * Reads and solves the sudoku of one file.
+     */
+    private class SolveTask implements Callable<Outcome> {
+
+        /**
+         * The path to the file.
+         */
+        private final String path;
+
+        private SolveTask(String path) {
+            this.path = path;
+        }
+
+        @Override
+        public Outcome call() {
+            try {
+                SolveResult result = strategy.solve(IOManager.readSudoku(path));
+
+                MetricsManager.getInstance().record(result);
+
+                String header = "# " + path + ": " + result.getStatus() + System.lineSeparator();
+
+                return new Outcome(result.getStatus(),
+                        result.isSolved() ? header + IOManager.formatSudoku(result.getSolution()) : header);
+            } catch(IllegalArgumentException | IndexOutOfBoundsException | UnsupportedOperationException e) {
+                return new Outcome(null, "# " + path + ": ERROR " + e.getMessage() + System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Solves one already read sudoku.
+     */
+    private class GridTask implements Callable<Outcome> {
+
+        /**
+         * The position of the sudoku in the input, starting at 1.
+         */
+        private final long index;
+
+        /**
+         * The sudoku.
+         */
+        private final Grid grid;
+
+        /**
+         * The format the solution is written in.
+         */
+        private final PuzzleReader.Format format;
+
+        private GridTask(long index, Grid grid, PuzzleReader.Format format) {
+            this.index = index;
+            this.grid = grid;
+            this.format = format;
+        }
+
+        @Override
+        public Outcome call() {
+            try {
+                SolveResult result = strategy.solve(grid.toSudoku());
+
+                MetricsManager.getInstance().record(result);
+
+                String header = "# " + index + ": " + result.getStatus() + System.lineSeparator();
+
+                if(!result.isSolved())
+                    return new Outcome(result.getStatus(), header);
+
+                return new Outcome(result.getStatus(), header + (format == PuzzleReader.Format.LINES
+                        ? IOManager.formatLine(Grid.fromSudoku(result.getSolution(), grid.getTopology()))
+                        : IOManager.formatSudoku(result.getSolution())));
+            } catch(IllegalArgumentException | IndexOutOfBoundsException | UnsupportedOperationException e) {
+                return new Outcome(null, "# " + index + ": ERROR " + e.getMessage() + System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Rates one already read sudoku.
+     */
+    private static class RateTask implements Callable<Outcome> {
+
+        /**
+         * The position of the sudoku in the input, starting at 1.
+         */
+        private final long index;
+
+        /**
+         * The sudoku.
+         */
+        private final Grid grid;
+
+        /**
+         * The rater of the sudoku.
+         */
+        private final DifficultyRater rater;
+
+        private RateTask(long index, Grid grid, DifficultyRater rater) {
+            this.index = index;
+            this.grid = grid;
+            this.rater = rater;
+        }
+
+        @Override
+        public Outcome call() {
+            try {
+                DifficultyRating rating = rater.rate(grid);
+
+                return new Outcome(rating.getStatus(), "# " + index + ": " + rating + System.lineSeparator());
+            } catch(IllegalArgumentException e) {
+                return new Outcome(null, "# " + index + ": ERROR " + e.getMessage() + System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * The formatted result of a sudoku.
+     */
+    private static class Outcome {
+
+        /**
+         * The status of the solve, null, if the sudoku could not be read.
+         */
+        private final SolveStatus status;
+
+        /**
+         * The text to be written.
+         */
+        private final String text;
+
+        private Outcome(SolveStatus status, String text) {
+            this.status = status;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Iterates over the files given by a list of inputs, expanding directories and the standard input lazily.
+     */
+    private static class PathIterator implements Iterator<String> {
+
+        /**
+         * The inputs.
+         */
+        private final String[] inputs;
+
+        /**
+         * The index of the next input to be expanded.
+         */
+        private int inputIndex;
+
+        /**
+         * The paths of the current input.
+         */
+        private Iterator<String> current;
+
+        /**
+         * The stream of the directory currently walked, null, if the current input is not a directory.
+         */
+        private Stream<Path> walk;
+
+        private PathIterator(String[] inputs) {
+            this.inputs = inputs;
+            this.inputIndex = 0;
+            this.current = Collections.emptyIterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while(!current.hasNext()) {
+                if(walk != null) {
+                    walk.close();
+                    walk = null;
+                }
+
+                if(inputIndex == inputs.length)
+                    return false;
+
+                current = expand(inputs[inputIndex++]);
+            }
+
+            return true;
+        }
+
+        @Override
+        public String next() {
+            if(!hasNext())
+                throw new NoSuchElementException();
+
+            return current.next();
+        }
+
+        /**
+         * Expands an input to the paths of its files.
+         *
+         * @param input The input.
+         *
+         * @return An iterator over the paths of the files of the input.
+         */
+        private Iterator<String> expand(String input) {
+            if(input.equals("-")) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+
+                return reader.lines().map(String::trim).filter(line -> !line.isEmpty()).iterator();
+            }
+
+            Path path = Paths.get(input);
+
+            if(!Files.isDirectory(path))
+                return Collections.singletonList(input).iterator();
+
+            try {
+                walk = Files.walk(path);
+            } catch(IOException e) {
+                throw new UncheckedIOException("The directory at '" + input + "' could not be read.", e);
+            }
+
+            return walk.filter(Files::isRegularFile).map(Path::toString).iterator();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.solver.SolveStatus;
+
+public class BatchReport {
+
+    /**
+     * The amount of sudokus that were solved, that are not solvable and that could not be read.
+     */
+    private long solved, unsolvable, failed;
+
+    /**
+     * The nanoseconds the batch took.
+     */
+    private long nanos;
+
+    /**
+     * Counts the result of a sudoku.
+     *
+     * @param status The status of the solve, null, if the sudoku could not be read.
+     */
+    protected void count(SolveStatus status) {
+        if(status == null)
+            failed++;
+        else if(status == SolveStatus.SOLVED)
+            solved++;
+        else
+            unsolvable++;
+    }
+
+    /**
+     * Sets the nanoseconds the batch took.
+     *
+     * @param nanos The nanoseconds the batch took.
+     */
+    protected void setNanos(long nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * Gets the amount of sudokus processed.
+     *
+     * @return The amount of sudokus processed.
+     */
+    public long getCount() {
+        return solved + unsolvable + failed;
+    }
+
+    /**
+     * Gets the amount of sudokus that were solved.
+     *
+     * @return The amount of solved sudokus.
+     */
+    public long getSolved() {
+        return solved;
+    }
+
+    /**
+     * Gets the amount of sudokus without a solution.
+     *
+     * @return The amount of unsolvable sudokus.
+     */
+    public long getUnsolvable() {
+        return unsolvable;
+    }
+
+    /**
+     * Gets the amount of sudokus that could not be read.
+     *
+     * @return The amount of sudokus that could not be read.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Gets the nanoseconds the batch took.
+     *
+     * @return The nanoseconds the batch took.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Gets the throughput of the batch.
+     *
+     * @return The amount of sudokus processed per second.
+     */
+    public double getSudokusPerSecond() {
+        return nanos == 0 ? 0 : getCount() * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Processed " + getCount() + " sudokus (" + solved + " solved, " + unsolvable + " unsolvable, "
+                + failed + " failed) in " + nanos / 1e9 + " seconds, "
+                + String.format("%.1f", getSudokusPerSecond()) + " sudokus/second.";
+    }
+}
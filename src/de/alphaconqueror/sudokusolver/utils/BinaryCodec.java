@@ -0,0 +1,479 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.structure.Field;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Topology;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.zip.CRC32;
+
+/**
+ * Encodes {@link BinaryRecord}s in a compact binary format. A record consists of
+ * <ul>
+ *     <li>a header of three bytes: the width and the height of the boards and the flags,</li>
+ *     <li>the values of all {@link Field}s in row-major order, each packed into the minimum amount of bits
+ *     needed for the values of the grid, e.g. 4 bits for 9x9 and 5 bits for 16x16 or 25x25 grids,
+ *     padded to full bytes,</li>
+ *     <li>if {@link #FLAG_GIVENS} is set, one bit per field marking the given fields, padded to full bytes,</li>
+ *     <li>the CRC-32 checksum of all previous bytes of the record.</li>
+ * </ul>
+ * Multi-byte values and bits are written with the most significant one first. Streams of records,
+ * as written by a {@link BinaryWriter}, start with the magic bytes "SDKB" followed by a version byte.
+ */
+public class BinaryCodec {
+
+    /**
+     * The flag marking records containing the bitmap of the given {@link Field}s.
+     */
+    public static final int FLAG_GIVENS = 1;
+
+    /**
+     * The version of the stream format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The bytes every stream of records starts with.
+     */
+    private static final byte[] MAGIC = {'S', 'D', 'K', 'B'};
+
+    /**
+     * The length of the header and the checksum of a record in bytes.
+     */
+    private static final int HEADER_LENGTH = 3,
+                             CHECKSUM_LENGTH = 4;
+
+    /**
+     * The largest board width or height that fits into the header.
+     */
+    private static final int MAX_BOARD_LENGTH = 0xFF;
+
+    /**
+     * The largest length of a record in bytes that is read, so a corrupt header can not allocate arbitrary memory.
+     * Grids with up to 700 possible values per field fit into it.
+     */
+    private static final int MAX_RECORD_LENGTH = 1 << 20;
+
+    /**
+     * Gets the amount of bits a value of a grid is packed into.
+     *
+     * @param size The side length of the grid, which equals the largest value.
+     *
+     * @return The amount of bits per value.
+     */
+    public static int getBitsPerValue(int size) {
+        return 32 - Integer.numberOfLeadingZeros(size);
+    }
+
+    /**
+     * Gets the length of a record in bytes.
+     *
+     * @param boardWidth  The width of the boards in amount of fields.
+     * @param boardHeight The height of the boards in amount of fields.
+     * @param givens      Whether the record contains the bitmap of the given fields.
+     *
+     * @return The length of the record in bytes.
+     */
+    public static int getRecordLength(int boardWidth, int boardHeight, boolean givens) {
+        int size = boardWidth * boardHeight;
+        long fieldCount = (long) size * size,
+             length = HEADER_LENGTH + (fieldCount * getBitsPerValue(size) + 7) / 8 + CHECKSUM_LENGTH;
+
+        if(givens)
+            length += (fieldCount + 7) / 8;
+
+        if(length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("A record of " + size + "x" + size + " fields is too large.");
+
+        return (int) length;
+    }
+
+    /**
+     * Encodes a {@link BinaryRecord}.
+     *
+     * @param record The record to be encoded.
+     *
+     * @return The bytes of the record.
+     *
+     * @throws IllegalArgumentException if the board dimensions do not fit into the header
+     */
+    public static byte[] encode(BinaryRecord record) {
+        Grid grid = record.getGrid();
+        Topology topology = grid.getTopology();
+
+        if(topology.getBoardWidth() > MAX_BOARD_LENGTH || topology.getBoardHeight() > MAX_BOARD_LENGTH)
+            throw new IllegalArgumentException("The board dimensions can not be larger than " + MAX_BOARD_LENGTH + ".");
+
+        byte[] bytes = new byte[getRecordLength(topology.getBoardWidth(), topology.getBoardHeight(),
+                record.hasGivens())];
+        int bits = getBitsPerValue(grid.getSize()),
+            position = HEADER_LENGTH,
+            buffered = 0;
+        long buffer = 0;
+
+        bytes[0] = (byte) topology.getBoardWidth();
+        bytes[1] = (byte) topology.getBoardHeight();
+        bytes[2] = (byte) (record.hasGivens() ? FLAG_GIVENS : 0);
+
+        for(int i = 0; i < grid.getFieldCount(); i++) {
+            buffer = buffer << bits | grid.getValue(i);
+            buffered += bits;
+
+            while(buffered >= 8) {
+                buffered -= 8;
+                bytes[position++] = (byte) (buffer >>> buffered);
+            }
+        }
+
+        if(buffered > 0)
+            bytes[position++] = (byte) (buffer << (8 - buffered));
+
+        if(record.hasGivens()) {
+            for(int i = 0; i < grid.getFieldCount(); i++) {
+                if(record.isGiven(i))
+                    bytes[position + (i >>> 3)] = (byte) (bytes[position + (i >>> 3)] | 0x80 >>> (i & 7));
+            }
+        }
+
+        writeChecksum(bytes);
+        return bytes;
+    }
+
+    /**
+     * Decodes a {@link BinaryRecord}.
+     *
+     * @param bytes The bytes of exactly one record.
+     *
+     * @return The decoded record.
+     *
+     * @throws IllegalArgumentException if the bytes are not a valid record
+     */
+    public static BinaryRecord decode(byte[] bytes) {
+        if(bytes.length < HEADER_LENGTH)
+            throw new IllegalArgumentException("The record is missing its header.");
+
+        return decode(bytes, null);
+    }
+
+    /**
+     * Decodes a {@link BinaryRecord}, sharing a {@link Topology} if it matches the board dimensions.
+     *
+     * @param bytes    The bytes of exactly one record, at least containing the header.
+     * @param topology The topology to be shared, may be null.
+     *
+     * @return The decoded record.
+     *
+     * @throws IllegalArgumentException if the bytes are not a valid record
+     */
+    static BinaryRecord decode(byte[] bytes, Topology topology) {
+        int boardWidth = bytes[0] & 0xFF,
+            boardHeight = bytes[1] & 0xFF,
+            length = checkHeader(bytes);
+        boolean hasGivens = (bytes[2] & FLAG_GIVENS) != 0;
+
+        if(bytes.length != length)
+            throw new IllegalArgumentException("The record has " + bytes.length + " instead of " + length + " bytes.");
+
+        if(readChecksum(bytes) != computeChecksum(bytes))
+            throw new IllegalArgumentException("The checksum of the record does not match its content.");
+
+        if(topology == null || topology.getBoardWidth() != boardWidth || topology.getBoardHeight() != boardHeight)
+            topology = Topology.of(boardWidth, boardHeight);
+
+        Grid grid = new Grid(topology);
+        int size = grid.getSize(),
+            bits = getBitsPerValue(size),
+            mask = (1 << bits) - 1,
+            position = HEADER_LENGTH,
+            buffered = 0;
+        long buffer = 0;
+
+        for(int i = 0; i < grid.getFieldCount(); i++) {
+            while(buffered < bits) {
+                buffer = buffer << 8 | bytes[position++] & 0xFF;
+                buffered += 8;
+            }
+
+            buffered -= bits;
+
+            int value = (int) (buffer >>> buffered) & mask;
+
+            if(value > size)
+                throw new IllegalArgumentException("The value '" + value + "' at x = " + (i % size + 1)
+                        + " | y = " + (i / size + 1) + " is out of bounds [1," + size + "].");
+
+            grid.setValue(i, value);
+        }
+
+        BitSet givens = null;
+
+        if(hasGivens) {
+            givens = BitSet.valueOf(reverseBits(Arrays.copyOfRange(bytes, position,
+                    bytes.length - CHECKSUM_LENGTH)));
+        }
+
+        return new BinaryRecord(grid, givens);
+    }
+
+    /**
+     * Writes a {@link BinaryRecord} to a stream.
+     *
+     * @param record The record to be written.
+     * @param out    The stream to be written to.
+     *
+     * @throws IOException if the stream could not be written
+     */
+    public static void writeRecord(BinaryRecord record, OutputStream out) throws IOException {
+        out.write(encode(record));
+    }
+
+    /**
+     * Reads a {@link BinaryRecord} from a stream.
+     *
+     * @param in The stream to be read from.
+     *
+     * @return The read record, null, if the stream ends before the record.
+     *
+     * @throws IOException              if the stream could not be read
+     * @throws IllegalArgumentException if the stream ends within the record or the record is not valid
+     */
+    public static BinaryRecord readRecord(InputStream in) throws IOException {
+        return readRecord(in, null);
+    }
+
+    /**
+     * Reads a {@link BinaryRecord} from a stream, sharing a {@link Topology} if it matches the board dimensions.
+     *
+     * @param in       The stream to be read from.
+     * @param topology The topology to be shared, may be null.
+     *
+     * @return The read record, null, if the stream ends before the record.
+     *
+     * @throws IOException              if the stream could not be read
+     * @throws IllegalArgumentException if the stream ends within the record or the record is not valid
+     */
+    static BinaryRecord readRecord(InputStream in, Topology topology) throws IOException {
+        byte[] header = new byte[HEADER_LENGTH];
+
+        if(!readFully(in, header, 0, HEADER_LENGTH))
+            return null;
+
+        int length = checkHeader(header);
+        byte[] bytes = Arrays.copyOf(header, length);
+
+        if(!readFully(in, bytes, HEADER_LENGTH, length - HEADER_LENGTH))
+            throw new IllegalArgumentException("The stream ends within a record.");
+
+        return decode(bytes, topology);
+    }
+
+    /**
+     * Checks the header of a record before anything else of the record is read or allocated.
+     *
+     * @param header The bytes starting with the header of the record.
+     *
+     * @return The length of the record in bytes.
+     *
+     * @throws IllegalArgumentException if the header has unknown flags, boards smaller than 2x2
+     *                                  or a record length larger than {@link #MAX_RECORD_LENGTH}
+     */
+    private static int checkHeader(byte[] header) {
+        int boardWidth = header[0] & 0xFF,
+            boardHeight = header[1] & 0xFF,
+            flags = header[2] & 0xFF;
+
+        if((flags & ~FLAG_GIVENS) != 0)
+            throw new IllegalArgumentException("The record has unknown flags " + flags + ".");
+
+        if(boardWidth < 2 || boardHeight < 2)
+            throw new IllegalArgumentException("The record has boards of " + boardWidth + "x" + boardHeight
+                    + " fields, but boards need at least 2x2 fields.");
+
+        int length = getRecordLength(boardWidth, boardHeight, (flags & FLAG_GIVENS) != 0);
+
+        if(length > MAX_RECORD_LENGTH)
+            throw new IllegalArgumentException("The record of " + boardWidth * boardHeight + "x"
+                    + boardWidth * boardHeight + " fields is larger than " + MAX_RECORD_LENGTH + " bytes.");
+
+        return length;
+    }
+
+    /**
+     * Writes the magic bytes and the version starting a stream of records.
+     *
+     * @param out The stream to be written to.
+     *
+     * @throws IOException if the stream could not be written
+     */
+    static void writeStreamHeader(OutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    /**
+     * Reads and checks the magic bytes and the version starting a stream of records.
+     *
+     * @param in The stream to be read from.
+     *
+     * @throws IOException              if the stream could not be read
+     * @throws IllegalArgumentException if the stream does not start with the magic bytes and a known version
+     */
+    static void readStreamHeader(InputStream in) throws IOException {
+        byte[] header = new byte[MAGIC.length + 1];
+
+        if(!readFully(in, header, 0, header.length)
+                || !Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC))
+            throw new IllegalArgumentException("The stream does not contain binary sudokus.");
+
+        if(header[MAGIC.length] != VERSION)
+            throw new IllegalArgumentException("The version " + header[MAGIC.length] + " is not supported.");
+    }
+
+    /**
+     * Writes all {@link Grid}s, e.g. the ones of a {@link PuzzleReader}, as records without givens.
+     *
+     * @param grids  The grids to be written.
+     * @param writer The writer to be written to.
+     *
+     * @return The amount of written records.
+     *
+     * @throws IOException if the records could not be written
+     */
+    public static long toBinary(Iterator<Grid> grids, BinaryWriter writer) throws IOException {
+        long count = 0;
+
+        while(grids.hasNext()) {
+            writer.write(grids.next());
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Writes the {@link Grid}s of all records in a text format.
+     *
+     * @param records The records to be written.
+     * @param format The text format to be written.
+     * @param out    The destination of the text.
+     *
+     * @return The amount of written grids.
+     *
+     * @throws IOException if the text could not be written
+     */
+    public static long toText(Iterator<BinaryRecord> records, PuzzleReader.Format format, Appendable out)
+            throws IOException {
+        long count = 0;
+
+        while(records.hasNext()) {
+            Grid grid = records.next().getGrid();
+
+            out.append(format == PuzzleReader.Format.LINES ? IOManager.formatLine(grid)
+                    : IOManager.formatSudoku(grid.toSudoku()));
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Reads bytes until the buffer range is full.
+     *
+     * @param in     The stream to be read from.
+     * @param buffer The buffer to be filled.
+     * @param offset The index of the first byte to be filled.
+     * @param length The amount of bytes to be read.
+     *
+     * @return true, if the range was filled, false, if the stream ended before the first byte.
+     *
+     * @throws IOException              if the stream could not be read
+     * @throws IllegalArgumentException if the stream ended within the range
+     */
+    private static boolean readFully(InputStream in, byte[] buffer, int offset, int length) throws IOException {
+        int read = 0;
+
+        while(read < length) {
+            int count = in.read(buffer, offset + read, length - read);
+
+            if(count < 0) {
+                if(read == 0)
+                    return false;
+
+                throw new IllegalArgumentException("The stream ends after " + read + " of " + length
+                        + " expected bytes.");
+            }
+
+            read += count;
+        }
+
+        return true;
+    }
+
+    /**
+     * Reverses the bit order of every byte, converting the most significant bit first bitmap of a record
+     * into the least significant bit first order used by {@link BitSet}.
+     *
+     * @param bytes The bytes to be reversed in place.
+     *
+     * @return The reversed bytes.
+     */
+    private static byte[] reverseBits(byte[] bytes) {
+        for(int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte) (Integer.reverse(bytes[i]) >>> 24);
+
+        return bytes;
+    }
+
+    /**
+     * Computes the checksum of a record.
+     *
+     * @param bytes The bytes of the record.
+     *
+     * @return The CRC-32 checksum of all bytes before the checksum.
+     */
+    private static int computeChecksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+
+        crc.update(bytes, 0, bytes.length - CHECKSUM_LENGTH);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Writes the checksum of a record into its last bytes.
+     *
+     * @param bytes The bytes of the record.
+     */
+    private static void writeChecksum(byte[] bytes) {
+        int checksum = computeChecksum(bytes);
+
+        for(int i = 0; i < CHECKSUM_LENGTH; i++)
+            bytes[bytes.length - CHECKSUM_LENGTH + i] = (byte) (checksum >>> (8 * (CHECKSUM_LENGTH - 1 - i)));
+    }
+
+    /**
+     * Reads the checksum stored in the last bytes of a record.
+     *
+     * @param bytes The bytes of the record.
+     *
+     * @return The stored checksum.
+     */
+    private static int readChecksum(byte[] bytes) {
+        int checksum = 0;
+
+        for(int i = bytes.length - CHECKSUM_LENGTH; i < bytes.length; i++)
+            checksum = checksum << 8 | bytes[i] & 0xFF;
+
+        return checksum;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.structure.Topology;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads a stream of {@link BinaryRecord}s in the format of {@link BinaryCodec} lazily.
+ * Records of the same shape share their {@link Topology}.
+ */
+public class BinaryReader implements Iterator<BinaryRecord>, Closeable {
+
+    /**
+     * The stream the records are read from.
+     */
+    private final InputStream in;
+
+    /**
+     * The next record to be returned, null, if it has not been read yet.
+     */
+    private BinaryRecord next;
+
+    /**
+     * The topology of the last record read, shared by the next one if possible.
+     */
+    private Topology topology;
+
+    /**
+     * Whether the end of the stream has been reached.
+     */
+    private boolean exhausted;
+
+    /**
+     * Creates a reader and checks the header of the stream.
+     *
+     * @param in The stream the records are read from.
+     *
+     * @throws IOException              if the header could not be read
+     * @throws IllegalArgumentException if the stream does not start with a valid header
+     */
+    public BinaryReader(InputStream in) throws IOException {
+        this.in = in instanceof BufferedInputStream ? in : new BufferedInputStream(in);
+
+        BinaryCodec.readStreamHeader(this.in);
+    }
+
+    /**
+     * Creates a reader reading from a file.
+     *
+     * @param path The path to the file.
+     *
+     * @return The reader reading from the file.
+     *
+     * @throws IOException              if the file could not be read
+     * @throws IllegalArgumentException if the file could not be found or does not start with a valid header
+     */
+    public static BinaryReader open(String path) throws IOException {
+        InputStream in;
+
+        try {
+            in = Files.newInputStream(Paths.get(path));
+        } catch(NoSuchFileException e) {
+            throw new IllegalArgumentException("The file at '" + path + "' could not be found.");
+        }
+
+        try {
+            return new BinaryReader(in);
+        } catch(IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a sequential {@link Stream} of the records read. Closing the stream closes the reader.
+     *
+     * @return The stream of the records read.
+     */
+    public Stream<BinaryRecord> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+                    try {
+                        close();
+                    } catch(IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * @throws UncheckedIOException     if the stream could not be read
+     * @throws IllegalArgumentException if the next record is not valid
+     */
+    @Override
+    public boolean hasNext() {
+        if(next == null && !exhausted) {
+            try {
+                next = BinaryCodec.readRecord(in, topology);
+            } catch(IOException e) {
+                throw new UncheckedIOException("The binary sudokus could not be read.", e);
+            }
+
+            exhausted = next == null;
+
+            if(next != null)
+                topology = next.getGrid().getTopology();
+        }
+
+        return next != null;
+    }
+
+    @Override
+    public BinaryRecord next() {
+        if(!hasNext())
+            throw new NoSuchElementException();
+
+        BinaryRecord record = next;
+
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        exhausted = true;
+        in.close();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.structure.Field;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+
+import java.util.BitSet;
+
+/**
+ * A {@link Grid} read from or written to the binary format of {@link BinaryCodec},
+ * optionally marking which {@link Field}s were given by the sudoku, e.g. when storing a solution.
+ */
+public class BinaryRecord {
+
+    /**
+     * The values of the record.
+     */
+    private final Grid grid;
+
+    /**
+     * The indices of the given fields, null, if the record does not mark them.
+     */
+    private final BitSet givens;
+
+    /**
+     * @param grid   The values of the record.
+     * @param givens The indices of the given fields, null, if the record does not mark them.
+     */
+    public BinaryRecord(Grid grid, BitSet givens) {
+        this.grid = grid;
+        this.givens = givens;
+    }
+
+    /**
+     * Creates a record of a solution marking the {@link Field}s given by its sudoku.
+     *
+     * @param solution The solution.
+     * @param sudoku   The solved sudoku, whose fields with a value are marked as given.
+     *
+     * @return The record of the solution.
+     *
+     * @throws IllegalArgumentException if the solution and the sudoku differ in size
+     */
+    public static BinaryRecord ofSolution(Grid solution, Grid sudoku) {
+        if(solution.getFieldCount() != sudoku.getFieldCount())
+            throw new IllegalArgumentException("The solution and the sudoku differ in size.");
+
+        BitSet givens = new BitSet(sudoku.getFieldCount());
+
+        for(int i = 0; i < sudoku.getFieldCount(); i++) {
+            if(sudoku.getValue(i) != 0)
+                givens.set(i);
+        }
+
+        return new BinaryRecord(solution, givens);
+    }
+
+    /**
+     * Gets the values of the record.
+     *
+     * @return The grid of the record.
+     */
+    public Grid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Checks if the record marks the given {@link Field}s.
+     *
+     * @return true, if the record marks the given fields, false, if otherwise.
+     */
+    public boolean hasGivens() {
+        return givens != null;
+    }
+
+    /**
+     * Checks if a {@link Field} is marked as given.
+     *
+     * @param fieldIndex The index of the field in row-major order.
+     *
+     * @return true, if the record marks the field as given, false, if otherwise.
+     */
+    public boolean isGiven(int fieldIndex) {
+        return givens != null && givens.get(fieldIndex);
+    }
+
+    /**
+     * Creates the sudoku of the record, containing only the values of the given {@link Field}s.
+     * Records not marking the given fields are considered to be sudokus themselves.
+     *
+     * @return The grid containing the values of the given fields.
+     */
+    public Grid getSudoku() {
+        if(givens == null)
+            return grid;
+
+        Grid sudoku = new Grid(grid.getTopology());
+
+        for(int i = givens.nextSetBit(0); i >= 0; i = givens.nextSetBit(i + 1))
+            sudoku.setValue(i, grid.getValue(i));
+
+        return sudoku;
+    }
+}
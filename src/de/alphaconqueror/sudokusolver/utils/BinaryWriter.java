@@ -0,0 +1,102 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.structure.Grid;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Writes a stream of {@link BinaryRecord}s in the format of {@link BinaryCodec}.
+ */
+public class BinaryWriter implements Closeable, Flushable {
+
+    /**
+     * The stream the records are written to.
+     */
+    private final OutputStream out;
+
+    /**
+     * The amount of records written.
+     */
+    private long count;
+
+    /**
+     * Creates a writer and writes the header of the stream.
+     *
+     * @param out The stream the records are written to.
+     *
+     * @throws IOException if the header could not be written
+     */
+    public BinaryWriter(OutputStream out) throws IOException {
+        this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out);
+        this.count = 0;
+
+        BinaryCodec.writeStreamHeader(this.out);
+    }
+
+    /**
+     * Creates a writer writing to a file, replacing its content.
+     *
+     * @param path The path to the file.
+     *
+     * @return The writer writing to the file.
+     *
+     * @throws IOException if the file could not be opened
+     */
+    public static BinaryWriter open(String path) throws IOException {
+        return new BinaryWriter(Files.newOutputStream(Paths.get(path)));
+    }
+
+    /**
+     * Writes a {@link Grid} as a record without givens.
+     *
+     * @param grid The grid to be written.
+     *
+     * @throws IOException if the record could not be written
+     */
+    public void write(Grid grid) throws IOException {
+        write(new BinaryRecord(grid, null));
+    }
+
+    /**
+     * Writes a record.
+     *
+     * @param record The record to be written.
+     *
+     * @throws IOException if the record could not be written
+     */
+    public void write(BinaryRecord record) throws IOException {
+        BinaryCodec.writeRecord(record, out);
+        count++;
+    }
+
+    /**
+     * Gets the amount of records written.
+     *
+     * @return The amount of records written.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
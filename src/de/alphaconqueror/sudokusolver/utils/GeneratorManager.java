@@ -0,0 +1,129 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.solver.PuzzleGenerator;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Generates many sudokus concurrently on a fixed amount of worker threads using a {@link PuzzleGenerator}.
+ * Every sudoku gets its own source of randomness, split off a seeded one in generation order,
+ * so the same seed always yields the same sudokus in the same order, regardless of the amount of threads.
+ * At most a bounded amount of sudokus is generated or waiting to be consumed at any time.
+ */
+public class GeneratorManager {
+
+    /**
+     * The generator of the sudokus.
+     */
+    private final PuzzleGenerator generator;
+
+    /**
+     * The amount of worker threads.
+     */
+    private final int threads;
+
+    /**
+     * The maximum amount of sudokus being generated or waiting to be consumed.
+     */
+    private final int maxPending;
+
+    /**
+     * @param generator  The generator of the sudokus.
+     * @param threads    The amount of worker threads.
+     * @param maxPending The maximum amount of sudokus being generated or waiting to be consumed.
+     */
+    public GeneratorManager(PuzzleGenerator generator, int threads, int maxPending) {
+        if(threads < 1)
+            throw new IllegalArgumentException("The amount of threads has to be at least 1.");
+        if(maxPending < threads)
+            throw new IllegalArgumentException("The amount of pending sudokus can not be smaller "
+                    + "than the amount of threads.");
+
+        this.generator = generator;
+        this.threads = threads;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Generates sudokus and hands them to the consumer in generation order on the calling thread.
+     * Every sudoku is handed over as a {@link BinaryRecord} of its solution marking the givens of the sudoku,
+     * see {@link BinaryRecord#getSudoku()}.
+     *
+     * @param seed     The seed of the randomness.
+     * @param count    The amount of sudokus to be generated.
+     * @param consumer The consumer of the sudokus.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting for a sudoku
+     */
+    public void generate(long seed, long count, Consumer<BinaryRecord> consumer) throws InterruptedException {
+        if(count < 0)
+            throw new IllegalArgumentException("The amount of sudokus can not be negative.");
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Deque<Future<BinaryRecord>> pending = new ArrayDeque<>();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        try {
+            for(long index = 0; index < count; index++) {
+                SplittableRandom taskRandom = random.split();
+
+                if(pending.size() >= maxPending)
+                    consumer.accept(get(pending.poll()));
+
+                pending.add(executor.submit(() -> generate(taskRandom)));
+
+                while(!pending.isEmpty() && pending.peek().isDone())
+                    consumer.accept(get(pending.poll()));
+            }
+
+            while(!pending.isEmpty())
+                consumer.accept(get(pending.poll()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates a sudoku.
+     *
+     * @param random The source of randomness of the sudoku.
+     *
+     * @return The record of the solution marking the givens of the sudoku.
+     */
+    private BinaryRecord generate(SplittableRandom random) {
+        Grid solution = generator.generateSolution(random);
+
+        return BinaryRecord.ofSolution(solution, generator.reduce(solution, random));
+    }
+
+    /**
+     * Waits for a generated sudoku.
+     *
+     * @param future The future of the sudoku.
+     *
+     * @return The record of the sudoku.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting for the sudoku
+     */
+    private static BinaryRecord get(Future<BinaryRecord> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("A sudoku could not be generated.", e.getCause());
+        }
+    }
+}
@@ -6,8 +6,7 @@
 
 package de.alphaconqueror.sudokusolver.utils;
 
-import de.alphaconqueror.sudokusolver.structure.Board;
-import de.alphaconqueror.sudokusolver.structure.Field;
+import de.alphaconqueror.sudokusolver.structure.Grid;
 import de.alphaconqueror.sudokusolver.structure.Sudoku;
 
 import java.io.File;
@@ -102,6 +101,94 @@ public class IOManager {
         return sudoku;
     }
 
+    /**
+     * Reads a {@link Grid} from a file in the format read by {@link #readSudoku(String)}.
+     * The file is mapped into memory and parsed without creating objects per value, see {@link MappedPuzzleReader}.
+     * Unlike {@link #readSudoku(String)}, the values are not checked against the rules.
+     *
+     * @param path The path to the file.
+     *
+     * @return The read grid.
+     *
+     * @throws IllegalArgumentException if the file does not contain exactly one square sudoku
+     */
+    public static Grid readGrid(String path) {
+        try(MappedPuzzleReader reader = new MappedPuzzleReader(PuzzleReader.Format.BLOCKS, path)) {
+            if(!reader.hasNext())
+                throw new IllegalArgumentException("The given file is missing the board specifications.");
+
+            Grid grid = reader.next();
+
+            if(reader.hasNext())
+                throw new IllegalArgumentException("The given file contains more than one sudoku.");
+
+            return grid;
+        }
+    }
+
+    /**
+     * Formats a {@link Sudoku} in the format read by {@link #readSudoku(String)}:
+     * a line containing the board specifications followed by one line per horizontal row.
+     *
+     * @param sudoku The sudoku to be formatted.
+     *
+     * @return The formatted sudoku, ending with a line separator.
+     */
+    public static String formatSudoku(Sudoku sudoku) {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append(sudoku.getBoardWidth()).append(' ').append(sudoku.getBoardHeight()).append(System.lineSeparator());
+
+        for(int y = 0; y < sudoku.getHeight() * sudoku.getBoardHeight(); y++) {
+            for(int x = 0; x < sudoku.getWidth() * sudoku.getBoardWidth(); x++) {
+                if(x > 0)
+                    builder.append(' ');
+
+                builder.append(sudoku.getFieldAt(x, y).getValue());
+            }
+
+            builder.append(System.lineSeparator());
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Formats a {@link Grid} in the {@link PuzzleReader.Format#LINES} format, writing empty fields as ".".
+     * The board dimensions are only written if they differ from the ones assumed for the side length.
+     *
+     * @param grid The grid to be formatted.
+     *
+     * @return The formatted grid in a single line, including the line separator.
+     *
+     * @throws IllegalArgumentException if the values do not fit into a single character
+     */
+    public static String formatLine(Grid grid) {
+        int size = grid.getSize(),
+            boardHeight = (int) Math.sqrt(size);
+
+        if(size >= Character.MAX_RADIX)
+            throw new IllegalArgumentException("Values larger than " + (Character.MAX_RADIX - 1)
+                    + " can not be written in a single line.");
+
+        while(size % boardHeight != 0)
+            boardHeight--;
+
+        StringBuilder builder = new StringBuilder(grid.getFieldCount() + 8);
+
+        if(grid.getTopology().getBoardHeight() != boardHeight)
+            builder.append(grid.getTopology().getBoardWidth()).append('x')
+                    .append(grid.getTopology().getBoardHeight()).append(':');
+
+        for(int i = 0; i < grid.getFieldCount(); i++) {
+            int value = grid.getValue(i);
+
+            builder.append(value == 0 ? '.' : Character.toUpperCase(Character.forDigit(value, Character.MAX_RADIX)));
+        }
+
+        return builder.append(System.lineSeparator()).toString();
+    }
+
     private static boolean isStringBlank(String s) {
         for(int i = 0; i < s.length(); i++) {
             if(s.charAt(i) != ' ')
@@ -157,94 +244,20 @@ public class IOManager {
     }
 
     /**
-     * Checks if the sudoku is allowed.
+     * Checks if the sudoku is allowed, reporting every duplicate value at once.
      *
      * @param sudoku The sudoku to be checked.
      */
     private static void checkRules(Sudoku sudoku) {
-        for(int y = 0; y < sudoku.getWidth() * sudoku.getBoardWidth(); y++)
-            checkHorizontalRowRules(sudoku, y);
-
-        for(int x = 0; x < sudoku.getWidth() * sudoku.getBoardWidth(); x++)
-            checkVerticalRowRules(sudoku, x);
-
-        for(int i = 0; i < sudoku.getBoardWidth() * sudoku.getBoardHeight(); i++)
-            checkBoardRules(sudoku, i);
-    }
-
-    /**
-     * Checks if a {@link Board} contains duplicates of possible values for a {@link Field} of a {@link Sudoku}.
-     *
-     * @param sudoku The sudoku of the concerned field.
-     */
-    private static void checkBoardRules(Sudoku sudoku, int boardIndex) {
-        Board board = sudoku.getBoards().get(boardIndex);
-        Set<Integer> values = new HashSet<>();
-        int boardWidth = sudoku.getBoardWidth(),
-            boardHeight = sudoku.getBoardHeight();
-
-        for(int i = 0; i < boardWidth * boardHeight; i++) {
-            Field field = board.getFields().get(i);
+        List<RuleViolation> violations = RuleValidator.validate(sudoku);
 
-            if(field.hasValue()) {
-                int value = field.getValue();
+        if(!violations.isEmpty()) {
+            StringJoiner joiner = new StringJoiner(", ", "Sudoku contains ", ".");
 
-                if(values.contains(value))
-                    throw new IllegalArgumentException("Sudoku contains duplicate value " + value + " at x = "
-                            + ((boardIndex % boardWidth) * boardWidth + i % boardWidth + 1)
-                            + " | y = " + (Math.floorDiv(boardIndex, boardHeight) * boardHeight
-                            + Math.floorDiv(i, boardHeight) + 1) + ".");
+            for(RuleViolation violation : violations)
+                joiner.add(violation.toString());
 
-                values.add(value);
-            }
-        }
-    }
-
-    /**
-     * Checks if the xth vertical row contains duplicates of possible values for a {@link Field} of a {@link Sudoku}.
-     *
-     * @param sudoku The sudoku of the concerned field.
-     * @param x      The xth vertical row, starting at 0.
-     */
-    private static void checkVerticalRowRules(Sudoku sudoku, int x) {
-        Set<Integer> values = new HashSet<>();
-
-        for(int i = 0; i < sudoku.getHeight() * sudoku.getBoardHeight(); i++) {
-            Field field = sudoku.getFieldAt(x, i);
-
-            if(field.hasValue()) {
-                int value = field.getValue();
-
-                if(values.contains(value))
-                    throw new IllegalArgumentException("Sudoku contains duplicate value " + value + " at x = "
-                            + (x + 1) + " | y = " + (i + 1) + ".");
-
-                values.add(value);
-            }
-        }
-    }
-
-    /**
-     * Checks if the yth horizontal row contains duplicates of possible values for a {@link Field} of a {@link Sudoku}.
-     *
-     * @param sudoku The sudoku of the concerned field.
-     * @param y      The yth horizontal row, starting at 0.
-     */
-    private static void checkHorizontalRowRules(Sudoku sudoku, int y) {
-        Set<Integer> values = new HashSet<>();
-
-        for(int i = 0; i < sudoku.getWidth() * sudoku.getBoardWidth(); i++) {
-            Field field = sudoku.getFieldAt(i, y);
-
-            if(field.hasValue()) {
-                int value = field.getValue();
-
-                if(values.contains(value))
-                    throw new IllegalArgumentException("Sudoku contains duplicate value " + value + " at x = "
-                            + (i + 1) + " | y = " + (y + 1) + ".");
-
-                values.add(value);
-            }
+            throw new IllegalArgumentException(joiner.toString());
         }
     }
 }
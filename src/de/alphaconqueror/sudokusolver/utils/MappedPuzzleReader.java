@@ -0,0 +1,219 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.structure.Grid;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A {@link PuzzleReader} that maps its files into memory instead of decoding them into {@link String}s.
+ * Every line is copied from the mapped bytes into a reused buffer and parsed from there directly into a {@link Grid},
+ * so no objects are created per line or value. Files are mapped in windows of a limited size,
+ * which allows reading files larger than 2 GB. The files have to use an encoding compatible with ASCII.
+ * The standard input can not be mapped and is read like by a {@link PuzzleReader}.
+ */
+public class MappedPuzzleReader extends PuzzleReader {
+
+    /**
+     * The default size of the mapped windows in bytes.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+
+    /**
+     * The maximum size of the mapped windows in bytes.
+     */
+    private final int windowSize;
+
+    /**
+     * The channel of the current file, null, if the current file is not mapped.
+     */
+    private FileChannel channel;
+
+    /**
+     * The size of the current file in bytes.
+     */
+    private long fileSize;
+
+    /**
+     * The currently mapped window of the file.
+     */
+    private MappedByteBuffer window;
+
+    /**
+     * The positions of the first byte of the window and the byte after its last one in the file.
+     */
+    private long windowStart, windowEnd;
+
+    /**
+     * The position of the next byte to be read in the file.
+     */
+    private long position;
+
+    /**
+     * The buffer the current line is copied into.
+     */
+    private final ByteLine line = new ByteLine();
+
+    /**
+     * @param format The format of the sudokus.
+     * @param paths  The paths of the files, {@value #STANDARD_INPUT} for the standard input.
+     */
+    public MappedPuzzleReader(Format format, String... paths) {
+        this(format, DEFAULT_WINDOW_SIZE, paths);
+    }
+
+    /**
+     * @param format     The format of the sudokus.
+     * @param windowSize The maximum size of the mapped windows in bytes.
+     * @param paths      The paths of the files, {@value #STANDARD_INPUT} for the standard input.
+     */
+    public MappedPuzzleReader(Format format, int windowSize, String... paths) {
+        super(format, paths);
+
+        if(windowSize < 1)
+            throw new IllegalArgumentException("The window size has to be at least 1.");
+
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    protected void openSource(String path) throws IOException {
+        if(path.equals(STANDARD_INPUT)) {
+            super.openSource(path);
+            return;
+        }
+
+        channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        fileSize = channel.size();
+        window = null;
+        windowStart = 0;
+        windowEnd = 0;
+        position = 0;
+    }
+
+    @Override
+    protected CharSequence readSourceLine() throws IOException {
+        if(channel == null)
+            return super.readSourceLine();
+
+        if(position == fileSize)
+            return null;
+
+        line.length = 0;
+
+        while(position < fileSize) {
+            if(position == windowEnd)
+                map(position);
+
+            int offset = (int) (position - windowStart),
+                limit = (int) (windowEnd - windowStart),
+                end = offset;
+
+            while(end < limit && window.get(end) != '\n')
+                end++;
+
+            line.append(window, offset, end);
+            position = windowStart + end;
+
+            if(end < limit) {
+                position++;
+                break;
+            }
+        }
+
+        return line;
+    }
+
+    @Override
+    protected void closeSource() throws IOException {
+        if(channel == null) {
+            super.closeSource();
+            return;
+        }
+
+        window = null;
+
+        try {
+            channel.close();
+        } finally {
+            channel = null;
+        }
+    }
+
+    /**
+     * Maps the window of the current file starting at a position.
+     *
+     * @param start The position of the first byte of the window.
+     *
+     * @throws IOException if the file could not be mapped
+     */
+    private void map(long start) throws IOException {
+        long size = Math.min(windowSize, fileSize - start);
+
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        windowStart = start;
+        windowEnd = start + size;
+    }
+
+    /**
+     * A line of bytes read as characters, growing as needed and reused for every line.
+     */
+    private static class ByteLine implements CharSequence {
+
+        /**
+         * The bytes of the line, of which the first {@link #length} are used.
+         */
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        /**
+         * Appends bytes of a buffer to the line.
+         *
+         * @param buffer The buffer to be copied from.
+         * @param start  The index of the first byte to be copied.
+         * @param end    The index after the last byte to be copied.
+         */
+        private void append(MappedByteBuffer buffer, int start, int end) {
+            int count = end - start;
+
+            if(length + count > bytes.length)
+                bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, length + count));
+
+            buffer.position(start);
+            buffer.get(bytes, length, count);
+
+            length += count;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
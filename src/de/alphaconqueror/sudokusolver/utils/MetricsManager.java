@@ -0,0 +1,220 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.solver.SolveResult;
+import de.alphaconqueror.sudokusolver.solver.SolveStatistics;
+import de.alphaconqueror.sudokusolver.solver.SolveStatus;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sums up the {@link SolveStatistics} of all recorded {@link SolveResult}s and exports the totals through JMX
+ * under {@value #OBJECT_NAME}. Results are only recorded after the metrics have been registered,
+ * so recording is a no-op for applications not using JMX. Recording is thread-safe.
+ */
+public class MetricsManager implements MetricsManagerMXBean {
+
+    /**
+     * The name the metrics are registered under.
+     */
+    public static final String OBJECT_NAME = "de.alphaconqueror.sudokusolver:type=Metrics";
+
+    /**
+     * The only instance.
+     */
+    private static final MetricsManager INSTANCE = new MetricsManager();
+
+    /**
+     * Whether the metrics have been registered.
+     */
+    private volatile boolean registered;
+
+    private final LongAdder solves = new LongAdder(),
+                            solved = new LongAdder(),
+                            unsolvable = new LongAdder(),
+                            propagationRounds = new LongAdder(),
+                            nakedSingles = new LongAdder(),
+                            hiddenSingles = new LongAdder(),
+                            eliminatedCandidates = new LongAdder(),
+                            guesses = new LongAdder(),
+                            backtracks = new LongAdder(),
+                            backtrackedLevels = new LongAdder(),
+                            candidateEvaluations = new LongAdder(),
+                            propagationNanos = new LongAdder(),
+                            searchNanos = new LongAdder();
+
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+
+    private MetricsManager() {}
+
+    /**
+     * Gets the only instance.
+     *
+     * @return The metrics manager.
+     */
+    public static MetricsManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the metrics at the platform {@link MBeanServer}, if they have not been registered yet.
+     *
+     * @throws IllegalStateException if the metrics could not be registered
+     */
+    public synchronized void register() {
+        if(registered)
+            return;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch(InstanceAlreadyExistsException ignored) {
+            // registered by another class loader, whose instance is exported instead
+        } catch(JMException e) {
+            throw new IllegalStateException("The metrics could not be registered.", e);
+        }
+
+        registered = true;
+    }
+
+    /**
+     * Checks if the metrics have been registered.
+     *
+     * @return true, if the metrics have been registered, false, if otherwise.
+     */
+    public boolean isRegistered() {
+        return registered;
+    }
+
+    /**
+     * Adds a result to the totals, if the metrics have been registered.
+     *
+     * @param result The result to be recorded.
+     */
+    public void record(SolveResult result) {
+        if(!registered)
+            return;
+
+        solves.increment();
+
+        if(result.getStatus() == SolveStatus.SOLVED)
+            solved.increment();
+        else if(result.getStatus() == SolveStatus.UNSOLVABLE)
+            unsolvable.increment();
+
+        SolveStatistics statistics = result.getStatistics();
+
+        if(statistics == null)
+            return;
+
+        propagationRounds.add(statistics.getPropagationRounds());
+        nakedSingles.add(statistics.getNakedSingles());
+        hiddenSingles.add(statistics.getHiddenSingles());
+        eliminatedCandidates.add(statistics.getEliminatedCandidates());
+        guesses.add(statistics.getGuesses());
+        backtracks.add(statistics.getBacktracks());
+        backtrackedLevels.add(statistics.getBacktrackedLevels());
+        maxDepth.accumulate(statistics.getMaxDepth());
+        candidateEvaluations.add(statistics.getCandidateEvaluations());
+        propagationNanos.add(statistics.getPropagationNanos());
+        searchNanos.add(statistics.getSearchNanos());
+    }
+
+    @Override
+    public long getSolves() {
+        return solves.sum();
+    }
+
+    @Override
+    public long getSolved() {
+        return solved.sum();
+    }
+
+    @Override
+    public long getUnsolvable() {
+        return unsolvable.sum();
+    }
+
+    @Override
+    public long getPropagationRounds() {
+        return propagationRounds.sum();
+    }
+
+    @Override
+    public long getNakedSingles() {
+        return nakedSingles.sum();
+    }
+
+    @Override
+    public long getHiddenSingles() {
+        return hiddenSingles.sum();
+    }
+
+    @Override
+    public long getEliminatedCandidates() {
+        return eliminatedCandidates.sum();
+    }
+
+    @Override
+    public long getGuesses() {
+        return guesses.sum();
+    }
+
+    @Override
+    public long getBacktracks() {
+        return backtracks.sum();
+    }
+
+    @Override
+    public long getBacktrackedLevels() {
+        return backtrackedLevels.sum();
+    }
+
+    @Override
+    public long getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    @Override
+    public long getCandidateEvaluations() {
+        return candidateEvaluations.sum();
+    }
+
+    @Override
+    public long getPropagationNanos() {
+        return propagationNanos.sum();
+    }
+
+    @Override
+    public long getSearchNanos() {
+        return searchNanos.sum();
+    }
+
+    @Override
+    public void reset() {
+        solves.reset();
+        solved.reset();
+        unsolvable.reset();
+        propagationRounds.reset();
+        nakedSingles.reset();
+        hiddenSingles.reset();
+        eliminatedCandidates.reset();
+        guesses.reset();
+        backtracks.reset();
+        backtrackedLevels.reset();
+        maxDepth.reset();
+        candidateEvaluations.reset();
+        propagationNanos.reset();
+        searchNanos.reset();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.solver.SolveStatistics;
+
+/**
+ * The totals of all recorded solves, exported through JMX by the {@link MetricsManager}.
+ * The meaning of the counters is described by the getters of {@link SolveStatistics}.
+ */
+public interface MetricsManagerMXBean {
+
+    long getSolves();
+
+    long getSolved();
+
+    long getUnsolvable();
+
+    long getPropagationRounds();
+
+    long getNakedSingles();
+
+    long getHiddenSingles();
+
+    long getEliminatedCandidates();
+
+    long getGuesses();
+
+    long getBacktracks();
+
+    long getBacktrackedLevels();
+
+    long getMaxDepth();
+
+    long getCandidateEvaluations();
+
+    long getPropagationNanos();
+
+    long getSearchNanos();
+
+    /**
+     * Resets all counters to 0.
+     */
+    void reset();
+}
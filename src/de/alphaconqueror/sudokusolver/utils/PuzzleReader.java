@@ -0,0 +1,500 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Topology;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads {@link Grid}s lazily from files containing any amount of sudokus, one line at a time,
+ * so files of any size can be read without keeping more than one sudoku in memory.
+ * Blank lines and lines starting with "#" are ignored in both formats.
+ */
+public class PuzzleReader implements Iterator<Grid>, Closeable {
+
+    /**
+     * The formats a file can contain sudokus in.
+     */
+    public enum Format {
+
+        /**
+         * One sudoku per line, every character being the value of one field in row-major order.
+         * Values are written as digits and letters like numbers in base 36 ("1"-"9", "A"-"Z"),
+         * empty fields as "." or "0". The board dimensions can be given as "widthxheight:" in front
+         * of the values, otherwise the boards are as square as possible and at least as wide as they are high.
+         */
+        LINES,
+
+        /**
+         * The format read by {@link IOManager#readSudoku(String)}, repeated: a line containing the width and height
+         * of the boards followed by one line per horizontal row, containing the values separated by blanks.
+         */
+        BLOCKS
+    }
+
+    /**
+     * The path standing for the standard input.
+     */
+    public static final String STANDARD_INPUT = "-";
+
+    /**
+     * The format of the sudokus.
+     */
+    private final Format format;
+
+    /**
+     * The paths of the files to be read in order.
+     */
+    private final String[] paths;
+
+    /**
+     * The index of the next file to be opened.
+     */
+    private int pathIndex;
+
+    /**
+     * The reader of the current file, null, if no file is open.
+     */
+    private BufferedReader reader;
+
+    /**
+     * Whether a file is currently open.
+     */
+    private boolean hasSource;
+
+    /**
+     * The path of the current file and the number of the last line read from it.
+     */
+    private String source;
+    private long lineNumber;
+
+    /**
+     * The last line read and the bounds of its content without leading and trailing whitespace.
+     */
+    private CharSequence line;
+    private int lineStart, lineEnd;
+
+    /**
+     * The next grid to be returned, null, if it has not been read yet.
+     */
+    private Grid next;
+
+    /**
+     * The topology of the last grid read, shared by all following grids of the same shape.
+     */
+    private Topology topology;
+
+    /**
+     * Creates a reader reading the files one after another.
+     *
+     * @param format The format of the sudokus.
+     * @param paths  The paths of the files, {@value #STANDARD_INPUT} for the standard input.
+     */
+    public PuzzleReader(Format format, String... paths) {
+        this.format = format;
+        this.paths = paths;
+        this.pathIndex = 0;
+    }
+
+    /**
+     * Creates a reader reading from an already opened {@link Reader}.
+     *
+     * @param format The format of the sudokus.
+     * @param reader The reader to be read from.
+     * @param source The name of the source used in error messages.
+     */
+    public PuzzleReader(Format format, Reader reader, String source) {
+        this(format);
+
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.hasSource = true;
+        this.source = source;
+    }
+
+    /**
+     * Creates a sequential {@link Stream} of the grids read. Closing the stream closes the reader.
+     *
+     * @return The stream of the grids read.
+     */
+    public Stream<Grid> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if(next == null)
+            next = readGrid();
+
+        return next != null;
+    }
+
+    @Override
+    public Grid next() {
+        if(!hasNext())
+            throw new NoSuchElementException();
+
+        Grid grid = next;
+
+        next = null;
+        return grid;
+    }
+
+    @Override
+    public void close() {
+        pathIndex = paths.length;
+
+        if(hasSource) {
+            hasSource = false;
+
+            try {
+                closeSource();
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Opens a file.
+     *
+     * @param path The path of the file, {@value #STANDARD_INPUT} for the standard input.
+     *
+     * @throws IOException if the file could not be opened
+     */
+    protected void openSource(String path) throws IOException {
+        if(path.equals(STANDARD_INPUT))
+            reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        else
+            reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the next line of the current file. The returned sequence only has to stay valid until the next call.
+     *
+     * @return The next line without the line terminator, null, if the file is exhausted.
+     *
+     * @throws IOException if the file could not be read
+     */
+    protected CharSequence readSourceLine() throws IOException {
+        return reader.readLine();
+    }
+
+    /**
+     * Closes the current file.
+     *
+     * @throws IOException if the file could not be closed
+     */
+    protected void closeSource() throws IOException {
+        try {
+            reader.close();
+        } finally {
+            reader = null;
+        }
+    }
+
+    /**
+     * Reads the next grid, opening the next file if the current one is exhausted.
+     *
+     * @return The next grid, null, if all files are exhausted.
+     */
+    private Grid readGrid() {
+        if(!readLine())
+            return null;
+
+        return format == Format.LINES ? parseLine() : parseBlock();
+    }
+
+    /**
+     * Reads the next line that is neither blank nor a comment.
+     *
+     * @return true, if a line was read, false, if all files are exhausted.
+     */
+    private boolean readLine() {
+        try {
+            while(true) {
+                if(!hasSource) {
+                    if(pathIndex == paths.length)
+                        return false;
+
+                    source = paths[pathIndex++];
+                    lineNumber = 0;
+
+                    try {
+                        openSource(source);
+                    } catch(NoSuchFileException e) {
+                        throw new IllegalArgumentException("The file at '" + source + "' could not be found.");
+                    }
+
+                    hasSource = true;
+                }
+
+                CharSequence sourceLine = readSourceLine();
+
+                if(sourceLine == null) {
+                    hasSource = false;
+                    closeSource();
+                    continue;
+                }
+
+                int start = 0, end = sourceLine.length();
+
+                lineNumber++;
+
+                while(start < end && Character.isWhitespace(sourceLine.charAt(start)))
+                    start++;
+
+                while(end > start && Character.isWhitespace(sourceLine.charAt(end - 1)))
+                    end--;
+
+                if(start < end && sourceLine.charAt(start) != '#') {
+                    line = sourceLine;
+                    lineStart = start;
+                    lineEnd = end;
+                    return true;
+                }
+            }
+        } catch(IOException e) {
+            throw new UncheckedIOException("The file at '" + source + "' could not be read.", e);
+        }
+    }
+
+    /**
+     * Parses the sudoku in the current line in the {@link Format#LINES} format.
+     *
+     * @return The parsed grid.
+     */
+    private Grid parseLine() {
+        int separator = indexOf(':'),
+            valuesStart = lineStart,
+            boardWidth = 0, boardHeight = 0;
+
+        if(separator >= 0) {
+            int dimensionSeparator = indexOf('x');
+
+            if(dimensionSeparator < 0 || dimensionSeparator > separator)
+                throw error("The board dimensions have to be given as 'widthxheight:'.");
+
+            boardWidth = parseNumber(lineStart, dimensionSeparator);
+            boardHeight = parseNumber(dimensionSeparator + 1, separator);
+
+            if(boardWidth < 0 || boardHeight < 0)
+                throw error("The given board dimensions are not numbers.");
+
+            valuesStart = skipWhitespace(separator + 1);
+        }
+
+        int length = lineEnd - valuesStart,
+            size = (int) Math.round(Math.sqrt(length));
+
+        if(size * size != length)
+            throw error("The amount of values " + length + " is not a square number.");
+
+        if(separator < 0) {
+            boardHeight = (int) Math.sqrt(size);
+
+            while(size % boardHeight != 0)
+                boardHeight--;
+
+            boardWidth = size / boardHeight;
+        } else if(boardWidth * boardHeight != size)
+            throw error("The board dimensions do not match the " + size + " values per row.");
+
+        Grid grid = new Grid(getTopology(boardWidth, boardHeight));
+
+        for(int i = 0; i < length; i++) {
+            char c = line.charAt(valuesStart + i);
+            int value = c == '.' ? 0 : Character.digit(c, Character.MAX_RADIX);
+
+            if(value < 0 || value > size)
+                throw error("The value '" + c + "' at x = " + (i % size + 1) + " | y = " + (i / size + 1)
+                        + " is out of bounds [1," + size + "].");
+
+            grid.setValue(i, value);
+        }
+
+        return grid;
+    }
+
+    /**
+     * Parses a sudoku in the {@link Format#BLOCKS} format, starting with the board specifications
+     * in the current line and reading the following rows.
+     *
+     * @return The parsed grid.
+     */
+    private Grid parseBlock() {
+        int widthEnd = skipToken(lineStart),
+            heightStart = skipWhitespace(widthEnd);
+
+        if(heightStart == lineEnd || skipToken(heightStart) != lineEnd)
+            throw error("Expected the board specifications, but found '" + line.subSequence(lineStart, lineEnd)
+                    + "'.");
+
+        int boardWidth = parseNumber(lineStart, widthEnd),
+            boardHeight = parseNumber(heightStart, lineEnd);
+
+        if(boardWidth < 0 || boardHeight < 0)
+            throw error("The given board specifications are not numbers.");
+
+        Grid grid = new Grid(getTopology(boardWidth, boardHeight));
+        int size = grid.getSize();
+
+        for(int y = 0; y < size; y++) {
+            if(!readLine())
+                throw error("The sudoku ends after " + y + " of " + size + " rows.");
+
+            int index = lineStart;
+
+            for(int x = 0; x < size; x++) {
+                if(index == lineEnd)
+                    throw error("The row has " + x + " instead of " + size + " values.");
+
+                int end = skipToken(index),
+                    value = parseNumber(index, end);
+
+                if(value < 0)
+                    throw error("The value '" + line.subSequence(index, end) + "' at x = " + (x + 1)
+                            + " | y = " + (y + 1) + " is not a number.");
+
+                if(value > size)
+                    throw error("The value '" + value + "' at x = " + (x + 1) + " | y = " + (y + 1)
+                            + " is out of bounds [1," + size + "].");
+
+                grid.setValue(x, y, value);
+                index = skipWhitespace(end);
+            }
+
+            if(index != lineEnd)
+                throw error("The row has more than " + size + " values.");
+        }
+
+        return grid;
+    }
+
+    /**
+     * Gets the index of the first occurrence of a character in the current line.
+     *
+     * @param c The character to be found.
+     *
+     * @return The index of the character, -1, if the line does not contain it.
+     */
+    private int indexOf(char c) {
+        for(int i = lineStart; i < lineEnd; i++) {
+            if(line.charAt(i) == c)
+                return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Skips the whitespace in the current line.
+     *
+     * @param index The index to start at.
+     *
+     * @return The index of the next character that is not whitespace, or the end of the line.
+     */
+    private int skipWhitespace(int index) {
+        while(index < lineEnd && Character.isWhitespace(line.charAt(index)))
+            index++;
+
+        return index;
+    }
+
+    /**
+     * Skips a token of the current line.
+     *
+     * @param index The index to start at.
+     *
+     * @return The index of the next whitespace character, or the end of the line.
+     */
+    private int skipToken(int index) {
+        while(index < lineEnd && !Character.isWhitespace(line.charAt(index)))
+            index++;
+
+        return index;
+    }
+
+    /**
+     * Parses a non-negative number of the current line without creating any objects.
+     *
+     * @param start The index of the first digit.
+     * @param end   The index after the last digit.
+     *
+     * @return The parsed number, -1, if the characters are not a number or the number is too large.
+     */
+    private int parseNumber(int start, int end) {
+        start = skipWhitespace(start);
+
+        while(end > start && Character.isWhitespace(line.charAt(end - 1)))
+            end--;
+
+        if(start == end || end - start > 9)
+            return -1;
+
+        int number = 0;
+
+        for(int i = start; i < end; i++) {
+            int digit = line.charAt(i) - '0';
+
+            if(digit < 0 || digit > 9)
+                return -1;
+
+            number = number * 10 + digit;
+        }
+
+        return number;
+    }
+
+    /**
+     * Gets the {@link Topology} for the board dimensions, reusing the one of the last grid if possible.
+     *
+     * @param boardWidth  The width of the boards in amount of fields.
+     * @param boardHeight The height of the boards in amount of fields.
+     *
+     * @return The topology for the board dimensions.
+     */
+    private Topology getTopology(int boardWidth, int boardHeight) {
+        if(topology == null || topology.getBoardWidth() != boardWidth || topology.getBoardHeight() != boardHeight) {
+            try {
+                topology = Topology.of(boardWidth, boardHeight);
+            } catch(IllegalArgumentException e) {
+                throw error(e.getMessage());
+            }
+        }
+
+        return topology;
+    }
+
+    /**
+     * Creates an exception describing a malformed sudoku at the current line.
+     *
+     * @param message The description of the problem.
+     *
+     * @return The exception to be thrown.
+     */
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Line " + lineNumber + " of '" + source + "': " + message);
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.structure.Board;
+import de.alphaconqueror.sudokusolver.structure.Field;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+import de.alphaconqueror.sudokusolver.structure.Topology;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Checks that no value occurs more than once within a horizontal row, a vertical row or a {@link Board}.
+ * The static methods check whole sudokus in a single pass over their {@link Field}s, marking the values of every unit
+ * in bitmasks. A validator instance keeps the amount of every value within every unit instead,
+ * so the values can be changed one by one and every change is validated without scanning the sudoku again.
+ * Both work for every {@link Topology}, including the ones of non-square sudokus.
+ */
+public class RuleValidator {
+
+    /**
+     * The {@link Topology} of the validated sudoku.
+     */
+    private final Topology topology;
+
+    /**
+     * The amount of possible values.
+     */
+    private final int size;
+
+    /**
+     * The values of all {@link Field}s in row-major order.
+     */
+    private final int[] values;
+
+    /**
+     * The amount of {@link Field}s of every unit containing a value, (size) counts per unit.
+     * The amount of the value v within unit u is stored at index (u * size + v - 1).
+     */
+    private final int[] counts;
+
+    /**
+     * The amount of pairs of a unit and a value occurring more than once within it.
+     */
+    private int violationCount;
+
+    /**
+     * Creates a validator of an empty sudoku.
+     *
+     * @param topology The topology of the sudoku.
+     */
+    public RuleValidator(Topology topology) {
+        this.topology = topology;
+        this.size = topology.getSize();
+        this.values = new int[topology.getFieldCount()];
+        this.counts = new int[topology.getUnitCount() * size];
+        this.violationCount = 0;
+    }
+
+    /**
+     * Creates a validator starting with the values of a {@link Grid}.
+     *
+     * @param grid The grid.
+     */
+    public RuleValidator(Grid grid) {
+        this(grid.getTopology());
+
+        for(int fieldIndex = 0; fieldIndex < values.length; fieldIndex++)
+            setValue(fieldIndex, grid.getValue(fieldIndex));
+    }
+
+    /**
+     * Creates a validator starting with the values of a {@link Sudoku}.
+     *
+     * @param sudoku The sudoku.
+     */
+    public RuleValidator(Sudoku sudoku) {
+        this(sudoku.getTopology());
+
+        for(int fieldIndex = 0; fieldIndex < values.length; fieldIndex++)
+            setValue(fieldIndex, sudoku.getField(fieldIndex).getValue());
+    }
+
+    /**
+     * Checks a {@link Grid} and reports every value occurring more than once within a unit.
+     *
+     * @param grid The grid to be checked.
+     *
+     * @return The violations of the rules, an empty list, if there are none.
+     */
+    public static List<RuleViolation> validate(Grid grid) {
+        return validate(grid.getTopology(), grid::getValue);
+    }
+
+    /**
+     * Checks a {@link Sudoku} and reports every value occurring more than once within a unit.
+     *
+     * @param sudoku The sudoku to be checked.
+     *
+     * @return The violations of the rules, an empty list, if there are none.
+     */
+    public static List<RuleViolation> validate(Sudoku sudoku) {
+        return validate(sudoku.getTopology(), fieldIndex -> sudoku.getField(fieldIndex).getValue());
+    }
+
+    /**
+     * Checks the values of a sudoku in a single pass. Every unit has a bitmask of the values seen
+     * and a bitmask of the values seen more than once, both split into {@code long}s, so any amount of values fits.
+     * Only if a duplicate is found, the fields of the affected units are collected afterwards.
+     *
+     * @param topology The topology of the sudoku.
+     * @param values   The values of the fields by their index.
+     *
+     * @return The violations of the rules, an empty list, if there are none.
+     */
+    private static List<RuleViolation> validate(Topology topology, IntUnaryOperator values) {
+        int words = (topology.getSize() + Long.SIZE - 1) / Long.SIZE;
+        long[] seen = new long[topology.getUnitCount() * words],
+               duplicates = new long[seen.length];
+        boolean valid = true;
+
+        for(int fieldIndex = 0; fieldIndex < topology.getFieldCount(); fieldIndex++) {
+            int value = values.applyAsInt(fieldIndex);
+
+            if(value == 0)
+                continue;
+
+            int word = (value - 1) / Long.SIZE;
+            long bit = 1L << (value - 1);
+
+            valid &= mark(seen, duplicates, topology.getHorizontalRowUnit(fieldIndex) * words + word, bit)
+                    & mark(seen, duplicates, topology.getVerticalRowUnit(fieldIndex) * words + word, bit)
+                    & mark(seen, duplicates, topology.getBoardUnit(fieldIndex) * words + word, bit);
+        }
+
+        if(valid)
+            return Collections.emptyList();
+
+        List<RuleViolation> violations = new ArrayList<>();
+
+        for(int unit = 0; unit < topology.getUnitCount(); unit++) {
+            for(int word = 0; word < words; word++) {
+                for(long bits = duplicates[unit * words + word]; bits != 0; bits &= bits - 1)
+                    violations.add(createViolation(topology, unit, word * Long.SIZE
+                            + Long.numberOfTrailingZeros(bits) + 1, values));
+            }
+        }
+
+        return violations;
+    }
+
+    /**
+     * Sets the value of a {@link Field} and updates the amounts of the old and the new value
+     * within the units of the field, which takes constant time.
+     *
+     * @param fieldIndex The index of the field in row-major order.
+     * @param value      The value to be set, 0 to clear the field.
+     *
+     * @return true, if the new value does not occur anywhere else in the units of the field, false, if otherwise.
+     *
+     * @throws IndexOutOfBoundsException if the value is out of bounds
+     */
+    public boolean setValue(int fieldIndex, int value) {
+        if(value < 0 || value > size)
+            throw new IndexOutOfBoundsException("The value '" + value + "' at x = "
+                    + (fieldIndex % topology.getFieldWidth() + 1) + " | y = "
+                    + (fieldIndex / topology.getFieldWidth() + 1) + " is out of bounds [1," + size + "].");
+
+        int oldValue = values[fieldIndex];
+
+        values[fieldIndex] = value;
+
+        update(topology.getHorizontalRowUnit(fieldIndex), oldValue, value);
+        update(topology.getVerticalRowUnit(fieldIndex), oldValue, value);
+        update(topology.getBoardUnit(fieldIndex), oldValue, value);
+
+        return !isConflicting(fieldIndex);
+    }
+
+    /**
+     * Gets the value of a {@link Field}.
+     *
+     * @param fieldIndex The index of the field in row-major order.
+     *
+     * @return The value of the field, 0, if it does not have one.
+     */
+    public int getValue(int fieldIndex) {
+        return values[fieldIndex];
+    }
+
+    /**
+     * Checks if the value of a {@link Field} occurs anywhere else in the units of the field.
+     *
+     * @param fieldIndex The index of the field in row-major order.
+     *
+     * @return true, if the field has a value that occurs more than once within one of its units,
+     *         false, if otherwise.
+     */
+    public boolean isConflicting(int fieldIndex) {
+        int value = values[fieldIndex];
+
+        if(value == 0)
+            return false;
+
+        return counts[topology.getHorizontalRowUnit(fieldIndex) * size + value - 1] > 1
+                || counts[topology.getVerticalRowUnit(fieldIndex) * size + value - 1] > 1
+                || counts[topology.getBoardUnit(fieldIndex) * size + value - 1] > 1;
+    }
+
+    /**
+     * Checks if no value occurs more than once within any unit, which takes constant time.
+     *
+     * @return true, if the values follow the rules, false, if otherwise.
+     */
+    public boolean isValid() {
+        return violationCount == 0;
+    }
+
+    /**
+     * Gets the amount of violations of the rules, which takes constant time.
+     *
+     * @return The amount of pairs of a unit and a value occurring more than once within it.
+     */
+    public int getViolationCount() {
+        return violationCount;
+    }
+
+    /**
+     * Reports every value occurring more than once within a unit.
+     *
+     * @return The violations of the rules, an empty list, if there are none.
+     */
+    public List<RuleViolation> getViolations() {
+        if(violationCount == 0)
+            return Collections.emptyList();
+
+        List<RuleViolation> violations = new ArrayList<>(violationCount);
+
+        for(int unit = 0; unit < topology.getUnitCount(); unit++) {
+            for(int value = 1; value <= size; value++) {
+                if(counts[unit * size + value - 1] > 1)
+                    violations.add(createViolation(topology, unit, value, fieldIndex -> values[fieldIndex]));
+            }
+        }
+
+        return violations;
+    }
+
+    /**
+     * Gets the {@link Topology} of the validated sudoku.
+     *
+     * @return The topology of the sudoku.
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Marks a value as seen within a unit.
+     *
+     * @param seen       The bitmasks of the values seen within every unit.
+     * @param duplicates The bitmasks of the values seen more than once within every unit.
+     * @param index      The index of the bitmasks of the unit containing the value.
+     * @param bit        The bit of the value.
+     *
+     * @return true, if the value has not been seen within the unit before, false, if otherwise.
+     */
+    private static boolean mark(long[] seen, long[] duplicates, int index, long bit) {
+        if((seen[index] & bit) != 0) {
+            duplicates[index] |= bit;
+            return false;
+        }
+
+        seen[index] |= bit;
+        return true;
+    }
+
+    /**
+     * Replaces a value within a unit and updates the amount of violations.
+     *
+     * @param unit     The unit.
+     * @param oldValue The replaced value, 0, if there is none.
+     * @param value    The new value, 0, if there is none.
+     */
+    private void update(int unit, int oldValue, int value) {
+        if(oldValue != 0 && --counts[unit * size + oldValue - 1] == 1)
+            violationCount--;
+
+        if(value != 0 && ++counts[unit * size + value - 1] == 2)
+            violationCount++;
+    }
+
+    /**
+     * Creates the violation of a value occurring more than once within a unit.
+     *
+     * @param topology The topology of the sudoku.
+     * @param unit     The unit as used by {@link Topology#getUnits()}.
+     * @param value    The duplicate value.
+     * @param values   The values of the fields by their index.
+     *
+     * @return The violation listing all fields of the unit containing the value.
+     */
+    private static RuleViolation createViolation(Topology topology, int unit, int value, IntUnaryOperator values) {
+        int[] units = topology.getUnits();
+        int start = topology.getUnitStart(unit),
+            end = topology.getUnitStart(unit + 1),
+            count = 0;
+        int[] fieldIndexes = new int[end - start];
+
+        for(int i = start; i < end; i++) {
+            if(values.applyAsInt(units[i]) == value)
+                fieldIndexes[count++] = units[i];
+        }
+
+        int rows = topology.getFieldHeight(),
+            columns = topology.getFieldWidth();
+        RuleViolation.UnitKind kind = unit < rows ? RuleViolation.UnitKind.HORIZONTAL_ROW
+                : unit < rows + columns ? RuleViolation.UnitKind.VERTICAL_ROW : RuleViolation.UnitKind.BOARD;
+        int unitIndex = unit < rows ? unit : unit < rows + columns ? unit - rows : unit - rows - columns;
+
+        return new RuleViolation(topology, kind, unitIndex, value, Arrays.copyOf(fieldIndexes, count));
+    }
+}
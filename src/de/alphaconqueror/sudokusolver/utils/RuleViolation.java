@@ -0,0 +1,118 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import de.alphaconqueror.sudokusolver.structure.Board;
+import de.alphaconqueror.sudokusolver.structure.Field;
+import de.alphaconqueror.sudokusolver.structure.Topology;
+
+/**
+ * A value occurring more than once within a horizontal row, a vertical row or a {@link Board},
+ * as reported by the {@link RuleValidator}.
+ */
+public class RuleViolation {
+
+    /**
+     * The kinds of units a value can occur in more than once.
+     */
+    public enum UnitKind {
+        HORIZONTAL_ROW, VERTICAL_ROW, BOARD
+    }
+
+    /**
+     * The {@link Topology} of the sudoku.
+     */
+    private final Topology topology;
+
+    /**
+     * The kind of the unit containing the duplicates.
+     */
+    private final UnitKind unitKind;
+
+    /**
+     * The index of the unit among the units of its kind, starting at 0.
+     */
+    private final int unitIndex;
+
+    /**
+     * The duplicate value.
+     */
+    private final int value;
+
+    /**
+     * The indexes of all {@link Field}s of the unit containing the value, in row-major order.
+     */
+    private final int[] fieldIndexes;
+
+    /**
+     * @param topology     The topology of the sudoku.
+     * @param unitKind     The kind of the unit containing the duplicates.
+     * @param unitIndex    The index of the unit among the units of its kind, starting at 0.
+     * @param value        The duplicate value.
+     * @param fieldIndexes The indexes of all fields of the unit containing the value, in row-major order.
+     */
+    RuleViolation(Topology topology, UnitKind unitKind, int unitIndex, int value, int[] fieldIndexes) {
+        this.topology = topology;
+        this.unitKind = unitKind;
+        this.unitIndex = unitIndex;
+        this.value = value;
+        this.fieldIndexes = fieldIndexes;
+    }
+
+    /**
+     * Gets the kind of the unit containing the duplicates.
+     *
+     * @return The kind of the unit.
+     */
+    public UnitKind getUnitKind() {
+        return unitKind;
+    }
+
+    /**
+     * Gets the index of the unit among the units of its kind, e.g. the yth horizontal row.
+     *
+     * @return The index of the unit, starting at 0.
+     */
+    public int getUnitIndex() {
+        return unitIndex;
+    }
+
+    /**
+     * Gets the duplicate value.
+     *
+     * @return The duplicate value.
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the indexes of all {@link Field}s of the unit containing the value.
+     *
+     * @return The indexes of the fields in row-major order.
+     */
+    public int[] getFieldIndexes() {
+        return fieldIndexes.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("duplicate value ").append(value).append(" in ")
+                .append(unitKind.name().toLowerCase().replace('_', ' ')).append(' ').append(unitIndex + 1)
+                .append(" at ");
+
+        for(int i = 0; i < fieldIndexes.length; i++) {
+            if(i > 0)
+                builder.append(i == fieldIndexes.length - 1 ? " and " : ", ");
+
+            builder.append("x = ").append(fieldIndexes[i] % topology.getFieldWidth() + 1)
+                    .append(" | y = ").append(fieldIndexes[i] / topology.getFieldWidth() + 1);
+        }
+
+        return builder.toString();
+    }
+}
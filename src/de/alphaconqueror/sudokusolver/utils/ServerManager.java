@@ -0,0 +1,472 @@
+/*
+ * @author: AlphaConqueror
+ * Copyright (c) 2020
+ * All rights reserved.
+ */
+
+package de.alphaconqueror.sudokusolver.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.alphaconqueror.sudokusolver.solver.CachingStrategy;
+import de.alphaconqueror.sudokusolver.solver.CancellationToken;
+import de.alphaconqueror.sudokusolver.solver.SolveOptions;
+import de.alphaconqueror.sudokusolver.solver.SolveResult;
+import de.alphaconqueror.sudokusolver.solver.SolveStatus;
+import de.alphaconqueror.sudokusolver.solver.SolverStrategy;
+import de.alphaconqueror.sudokusolver.structure.Grid;
+import de.alphaconqueror.sudokusolver.structure.Sudoku;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves solving {@link Sudoku}s over HTTP, so a long-running process pays the startup of the JVM only once.
+ * Requests are handled on virtual threads, if the JVM supports them, and only wait for the solving,
+ * which happens on a fixed amount of worker threads with a bounded queue. Requests that do not fit into the queue
+ * are rejected instead of piling up. The endpoints are:
+ * <ul>
+ *     <li>{@code POST /solve}: solves all sudokus of the body in either {@link PuzzleReader.Format}, given by the
+ *     query {@code format=lines} or {@code format=blocks} or detected from the first line. The response contains
+ *     a line with the position of every sudoku, starting at 1, and its status, followed by the solution
+ *     in the format of the request, if one was found. Sudokus not solved in time get the status TIMEOUT.</li>
+ *     <li>{@code GET /health}: responds with OK as long as the server is running.</li>
+ *     <li>{@code GET /metrics}: the counters of the server, the totals of the {@link MetricsManager}
+ *     and the counters of the {@link CachingStrategy}, if the sudokus are solved through one,
+ *     one "name value" pair per line.</li>
+ * </ul>
+ */
+public class ServerManager {
+
+    /**
+     * The maximum size of a request body in bytes.
+     */
+    private static final int MAX_BODY_BYTES = 16 << 20;
+
+    /**
+     * The strategy used to solve every sudoku.
+     */
+    private final SolverStrategy strategy;
+
+    /**
+     * The amount of worker threads.
+     */
+    private final int threads;
+
+    /**
+     * The maximum amount of sudokus being solved or waiting for a worker thread, which is also the maximum
+     * amount of sudokus per request.
+     */
+    private final int maxPending;
+
+    /**
+     * The milliseconds a request may take to be solved.
+     */
+    private final long timeoutMillis;
+
+    /**
+     * The counters of the server.
+     */
+    private final LongAdder requests = new LongAdder(),
+                             sudokus = new LongAdder(),
+                             rejected = new LongAdder(),
+                             timeouts = new LongAdder(),
+                             failed = new LongAdder();
+
+    /**
+     * The running server, null, if the server has not been started.
+     */
+    private HttpServer server;
+
+    /**
+     * The executor handling the requests.
+     */
+    private ExecutorService requestExecutor;
+
+    /**
+     * The worker threads solving the sudokus.
+     */
+    private ThreadPoolExecutor solverExecutor;
+
+    /**
+     * @param strategy      The strategy used to solve every sudoku, which has to be thread-safe.
+     * @param threads       The amount of worker threads.
+     * @param maxPending    The maximum amount of sudokus being solved or waiting for a worker thread.
+     * @param timeoutMillis The milliseconds a request may take to be solved.
+     */
+    public ServerManager(SolverStrategy strategy, int threads, int maxPending, long timeoutMillis) {
+        if(threads < 1)
+            throw new IllegalArgumentException("The amount of threads has to be at least 1.");
+        if(maxPending < threads)
+            throw new IllegalArgumentException("The amount of pending sudokus can not be smaller "
+                    + "than the amount of threads.");
+        if(timeoutMillis < 1)
+            throw new IllegalArgumentException("The timeout has to be at least 1 millisecond.");
+
+        this.strategy = strategy;
+        this.threads = threads;
+        this.maxPending = maxPending;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Starts the server. The totals of the solver statistics are registered at the {@link MetricsManager}.
+     *
+     * @param address The address to listen on, port 0 for any free port.
+     *
+     * @return The address the server listens on.
+     *
+     * @throws IOException if the server could not be bound to the address
+     */
+    public synchronized InetSocketAddress start(InetSocketAddress address) throws IOException {
+        if(server != null)
+            throw new IllegalStateException("The server has already been started.");
+
+        MetricsManager.getInstance().register();
+
+        server = HttpServer.create(address, 0);
+        requestExecutor = newRequestExecutor();
+        solverExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxPending - threads)));
+
+        server.setExecutor(requestExecutor);
+        server.createContext("/solve", exchange -> handle(exchange, "POST", this::solve));
+        server.createContext("/health", exchange -> handle(exchange, "GET", ignored -> respond(exchange, 200, "OK\n")));
+        server.createContext("/metrics", exchange -> handle(exchange, "GET", this::writeMetrics));
+        server.start();
+
+        return server.getAddress();
+    }
+
+    /**
+     * Stops the server, waiting for the requests being handled at most the given amount of seconds.
+     * Sudokus still being solved are abandoned.
+     *
+     * @param delaySeconds The seconds to wait for the requests being handled.
+     */
+    public synchronized void stop(int delaySeconds) {
+        if(server == null)
+            return;
+
+        server.stop(delaySeconds);
+        solverExecutor.shutdownNow();
+        requestExecutor.shutdownNow();
+        server = null;
+    }
+
+    /**
+     * Gets the address the server listens on.
+     *
+     * @return The address, null, if the server is not running.
+     */
+    public synchronized InetSocketAddress getAddress() {
+        return server == null ? null : server.getAddress();
+    }
+
+    /**
+     * Creates the executor handling the requests, using a virtual thread per request, if the JVM supports them,
+     * and a cached pool of platform threads, if otherwise. The requests only parse, wait and write,
+     * so the amount of requests handled at once is not limited by the amount of worker threads.
+     *
+     * @return The executor handling the requests.
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch(ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Handles a request, responding with an error, if the method does not match, the path does not match exactly
+     * or the handler fails.
+     *
+     * @param exchange The exchange of the request.
+     * @param method   The expected method.
+     * @param handler  The handler of the request.
+     */
+    private void handle(HttpExchange exchange, String method, Handler handler) {
+        try {
+            requests.increment();
+
+            if(!exchange.getRequestURI().getPath().equals(exchange.getHttpContext().getPath()))
+                respond(exchange, 404, "Not found.\n");
+            else if(!exchange.getRequestMethod().equals(method)) {
+                exchange.getResponseHeaders().set("Allow", method);
+                respond(exchange, 405, "Use " + method + ".\n");
+            } else
+                handler.handle(exchange);
+        } catch(IOException | UncheckedIOException e) {
+            failed.increment();
+        } catch(RuntimeException e) {
+            failed.increment();
+
+            try {
+                respond(exchange, 500, "The request could not be processed: " + e.getMessage() + "\n");
+            } catch(IOException ignored) {
+                // the client is gone
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Reads the sudokus of a request, solves them on the worker threads and writes the results in input order.
+     *
+     * @param exchange The exchange of the request.
+     *
+     * @throws IOException if the request could not be read or the response could not be written
+     */
+    private void solve(HttpExchange exchange) throws IOException {
+        String body = readBody(exchange);
+
+        if(body == null) {
+            respond(exchange, 413, "The body is larger than " + MAX_BODY_BYTES + " bytes.\n");
+            return;
+        }
+
+        PuzzleReader.Format format = getFormat(exchange.getRequestURI(), body);
+        List<Grid> grids = new ArrayList<>();
+
+        try(PuzzleReader reader = new PuzzleReader(format, new StringReader(body), "request")) {
+            while(reader.hasNext()) {
+                if(grids.size() == maxPending) {
+                    respond(exchange, 413, "A request can contain at most " + maxPending + " sudokus.\n");
+                    return;
+                }
+
+                grids.add(reader.next());
+            }
+        } catch(IllegalArgumentException e) {
+            respond(exchange, 400, e.getMessage() + "\n");
+            return;
+        }
+
+        List<Future<SolveResult>> futures = new ArrayList<>(grids.size());
+        CancellationToken token = new CancellationToken();
+        SolveOptions options = new SolveOptions(timeoutMillis, SolveOptions.UNLIMITED, token);
+
+        try {
+            for(Grid grid : grids)
+                futures.add(solverExecutor.submit(() -> strategy.solve(grid.toSudoku(), options)));
+        } catch(RejectedExecutionException e) {
+            token.cancel();
+            futures.forEach(future -> future.cancel(true));
+            rejected.increment();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 503, "The server is busy.\n");
+            return;
+        }
+
+        sudokus.add(grids.size());
+
+        StringBuilder response = new StringBuilder();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        for(int i = 0; i < grids.size(); i++)
+            response.append(formatResult(i + 1, grids.get(i), futures.get(i), deadline, format));
+
+        // stops the solves still running after a timeout, so their worker threads are free for the next request
+        token.cancel();
+
+        respond(exchange, 200, response.toString());
+    }
+
+    /**
+     * Waits for the result of a sudoku until the deadline and formats it.
+     *
+     * @param index    The position of the sudoku in the request, starting at 1.
+     * @param grid     The sudoku.
+     * @param future   The future of the result.
+     * @param deadline The {@link System#nanoTime()} up to which the request may take.
+     * @param format   The format the solution is written in.
+     *
+     * @return The formatted result.
+     */
+    private String formatResult(int index, Grid grid, Future<SolveResult> future, long deadline,
+                                PuzzleReader.Format format) {
+        String prefix = "# " + index + ": ";
+        SolveResult result;
+
+        try {
+            result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch(TimeoutException e) {
+            future.cancel(true);
+            timeouts.increment();
+            return prefix + "TIMEOUT\n";
+        } catch(InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return prefix + "TIMEOUT\n";
+        } catch(ExecutionException e) {
+            failed.increment();
+            return prefix + "ERROR " + e.getCause().getMessage() + "\n";
+        }
+
+        MetricsManager.getInstance().record(result);
+
+        if(result.getStatus() == SolveStatus.TIMEOUT || result.getStatus() == SolveStatus.ABORTED)
+            timeouts.increment();
+
+        if(!result.isSolved())
+            return prefix + result.getStatus() + "\n";
+
+        String solution = format == PuzzleReader.Format.LINES
+                ? IOManager.formatLine(Grid.fromSudoku(result.getSolution(), grid.getTopology()))
+                : IOManager.formatSudoku(result.getSolution());
+
+        return prefix + result.getStatus() + "\n" + solution.replace(System.lineSeparator(), "\n");
+    }
+
+    /**
+     * Writes the counters of the server and the totals of the {@link MetricsManager}.
+     *
+     * @param exchange The exchange of the request.
+     *
+     * @throws IOException if the response could not be written
+     */
+    private void writeMetrics(HttpExchange exchange) throws IOException {
+        MetricsManager metrics = MetricsManager.getInstance();
+        String text = "requests " + requests.sum() + "\n"
+                + "sudokus " + sudokus.sum() + "\n"
+                + "rejected " + rejected.sum() + "\n"
+                + "timeouts " + timeouts.sum() + "\n"
+                + "failed " + failed.sum() + "\n"
+                + "active_solves " + solverExecutor.getActiveCount() + "\n"
+                + "queued_solves " + solverExecutor.getQueue().size() + "\n"
+                + "solves " + metrics.getSolves() + "\n"
+                + "solved " + metrics.getSolved() + "\n"
+                + "unsolvable " + metrics.getUnsolvable() + "\n"
+                + "guesses " + metrics.getGuesses() + "\n"
+                + "backtracks " + metrics.getBacktracks() + "\n"
+                + "max_depth " + metrics.getMaxDepth() + "\n"
+                + "propagation_nanos " + metrics.getPropagationNanos() + "\n"
+                + "search_nanos " + metrics.getSearchNanos() + "\n";
+
+        if(strategy instanceof CachingStrategy) {
+            CachingStrategy cache = (CachingStrategy) strategy;
+
+            text += "cache_hits " + cache.getHits() + "\n"
+                    + "cache_misses " + cache.getMisses() + "\n"
+                    + "cache_evictions " + cache.getEvictions() + "\n"
+                    + "cache_size " + cache.getSize() + "\n"
+                    + "cache_hit_rate " + cache.getHitRate() + "\n";
+        }
+
+        respond(exchange, 200, text);
+    }
+
+    /**
+     * Reads the body of a request.
+     *
+     * @param exchange The exchange of the request.
+     *
+     * @return The body, null, if it is larger than {@link #MAX_BODY_BYTES}.
+     *
+     * @throws IOException if the body could not be read
+     */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+
+        try(InputStream in = exchange.getRequestBody()) {
+            for(int read; (read = in.read(buffer)) != -1; ) {
+                if(body.size() + read > MAX_BODY_BYTES)
+                    return null;
+
+                body.write(buffer, 0, read);
+            }
+        }
+
+        return body.toString(StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * Gets the {@link PuzzleReader.Format} of a request, given by the query "format=lines" or "format=blocks".
+     * Without a query, the format is detected from the first line that is neither blank nor a comment:
+     * the board dimensions of {@link PuzzleReader.Format#BLOCKS} contain a blank, a line of values does not.
+     *
+     * @param uri  The URI of the request.
+     * @param body The body of the request.
+     *
+     * @return The format of the sudokus.
+     */
+    private static PuzzleReader.Format getFormat(URI uri, String body) {
+        String query = uri.getQuery();
+
+        if(query != null) {
+            for(String parameter : query.split("&")) {
+                if(parameter.equalsIgnoreCase("format=lines"))
+                    return PuzzleReader.Format.LINES;
+                if(parameter.equalsIgnoreCase("format=blocks"))
+                    return PuzzleReader.Format.BLOCKS;
+            }
+        }
+
+        for(String line : body.split("\n")) {
+            line = line.trim();
+
+            if(!line.isEmpty() && !line.startsWith("#"))
+                return line.indexOf(' ') > 0 || line.indexOf('\t') > 0 ? PuzzleReader.Format.BLOCKS
+                        : PuzzleReader.Format.LINES;
+        }
+
+        return PuzzleReader.Format.LINES;
+    }
+
+    /**
+     * Writes a plain text response.
+     *
+     * @param exchange The exchange of the request.
+     * @param status   The HTTP status code.
+     * @param text     The text of the response.
+     *
+     * @throws IOException if the response could not be written
+     */
+    private static void respond(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+
+        try(OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Handles a request whose method and path have been checked.
+     */
+    private interface Handler {
+
+        /**
+         * Handles the request.
+         *
+         * @param exchange The exchange of the request.
+         *
+         * @throws IOException if the request could not be read or the response could not be written
+         */
+        void handle(HttpExchange exchange) throws IOException;
+    }
+}
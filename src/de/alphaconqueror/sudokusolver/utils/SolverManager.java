@@ -6,31 +6,32 @@
 
 package de.alphaconqueror.sudokusolver.utils;
 
+import de.alphaconqueror.sudokusolver.solver.BitmaskSolver;
+import de.alphaconqueror.sudokusolver.solver.DancingLinksSolver;
+import de.alphaconqueror.sudokusolver.solver.SolutionCount;
+import de.alphaconqueror.sudokusolver.solver.SolveOptions;
+import de.alphaconqueror.sudokusolver.solver.SolveResult;
+import de.alphaconqueror.sudokusolver.solver.SolveStatus;
+import de.alphaconqueror.sudokusolver.solver.SolverStrategy;
 import de.alphaconqueror.sudokusolver.structure.Board;
 import de.alphaconqueror.sudokusolver.structure.Field;
+import de.alphaconqueror.sudokusolver.structure.Grid;
 import de.alphaconqueror.sudokusolver.structure.Sudoku;
+import de.alphaconqueror.sudokusolver.structure.Topology;
 
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
-public class SolverManager {
+public class SolverManager implements SolverStrategy {
 
     /**
-     * The width and height of every {@link Board} in amount of {@link Field}s.
+     * The {@link Topology} shared by all {@link Sudoku}s solved by this manager.
      */
-    private final int boardWidth, boardHeight;
-
-    /**
-     * The width and height of the {@link Sudoku} in amount of {@link Board}s.
-     */
-    private final int width, height;
+    private final Topology topology;
 
     public SolverManager(Sudoku sudoku) {
-        this.boardWidth = sudoku.getBoardWidth();
-        this.boardHeight = sudoku.getBoardHeight();
-        this.width = sudoku.getWidth();
-        this.height = sudoku.getHeight();
+        this.topology = sudoku.getTopology();
     }
 
     /**
@@ -39,26 +40,144 @@ public class SolverManager {
      * @param sudoku The sudoku to be solved.
      *
      * @return The solved sudoku.
+     *
+     * @throws UnsupportedOperationException if the sudoku is not solvable
      */
     public Sudoku solveSudoku(Sudoku sudoku) {
-        int solvedFields = 0;
-        Set<Integer> unsolvedFields = getUnsolvedFields(sudoku);
+        Sudoku solvedSudoku = findSolution(sudoku);
 
-        if(unsolvedFields.size() == 0)
-            return sudoku;
+        if(solvedSudoku == null)
+            throw new UnsupportedOperationException("Solving not possible.");
 
-        for(int fieldIndex : unsolvedFields) {
-            int x = fieldIndex % (width * boardWidth),
-                y = Math.floorDiv(fieldIndex, width * boardWidth);
-            Set<Integer> possibilities = getPossibilities(sudoku, x, y);
+        return solvedSudoku;
+    }
 
-            if(possibilities.size() == 1) {
-                sudoku.setFieldValueAt(x, y, possibilities.iterator().next());
-                solvedFields++;
-            }
+    /**
+     * Counts the solutions of the given {@link Sudoku} until the limit is reached.
+     * Sudokus supported by the {@link BitmaskSolver} are counted by it,
+     * all other square sudokus are counted by a {@link DancingLinksSolver}.
+     *
+     * @param sudoku       The sudoku to be counted, which is not modified.
+     * @param limit        The amount of solutions after which the counting stops, 2 to check for uniqueness.
+     * @param maxSolutions The maximum amount of solutions to be kept.
+     *
+     * @return The amount of solutions found and the first solutions.
+     *
+     * @throws IllegalArgumentException if the board dimensions of the sudoku do not match the ones of this manager
+     * @throws IllegalArgumentException if the sudoku is not square
+     */
+    public SolutionCount countSolutions(Sudoku sudoku, long limit, int maxSolutions) {
+        if(sudoku.getTopology() != topology)
+            throw new IllegalArgumentException("The sudoku does not match the dimensions of the solver manager.");
+
+        if(BitmaskSolver.supports(sudoku))
+            return new BitmaskSolver(sudoku).countSolutions(limit, maxSolutions);
+
+        if(!topology.isSquare())
+            throw new IllegalArgumentException("Only the solutions of square sudokus can be counted.");
+
+        return new DancingLinksSolver(topology).countSolutions(Grid.fromSudoku(sudoku), limit, maxSolutions);
+    }
+
+    /**
+     * Checks if the given {@link Sudoku} has exactly one solution.
+     * The search stops as soon as a second solution is found.
+     *
+     * @param sudoku The sudoku to be checked.
+     *
+     * @return true, if the sudoku has exactly one solution, false, if otherwise.
+     *
+     * @throws IllegalArgumentException if the board dimensions of the sudoku do not match the ones of this manager
+     * @throws IllegalArgumentException if the sudoku is not square
+     */
+    public boolean isUnique(Sudoku sudoku) {
+        return countSolutions(sudoku, 2, 0).isUnique();
+    }
+
+    /**
+     * Solves a clone of the given {@link Sudoku} within the limits of the given {@link SolveOptions}.
+     *
+     * @param sudoku  The sudoku to be solved.
+     * @param options The limits of the solve.
+     *
+     * @return The result containing the solved clone, if a solution was found.
+     *         Statistics are only collected for sudokus supported by the {@link BitmaskSolver}.
+     *
+     * @throws IllegalArgumentException if the board dimensions of the sudoku do not match the ones of this manager
+     */
+    @Override
+    public SolveResult solve(Sudoku sudoku, SolveOptions options) {
+        if(sudoku.getTopology() != topology)
+            throw new IllegalArgumentException("The sudoku does not match the dimensions of the solver manager.");
+
+        Sudoku clone = sudoku.clone();
+
+        if(BitmaskSolver.supports(clone)) {
+            BitmaskSolver solver = new BitmaskSolver(clone);
+            SolveStatus status = solver.solve(options);
+
+            return new SolveResult(status, status == SolveStatus.SOLVED ? solver.writeSudoku(clone) : null,
+                    solver.getStatistics());
         }
 
-        return solvedFields == 0 ? guessSolution(sudoku) : solveSudoku(sudoku);
+        Search search = new Search(options);
+        Sudoku solvedSudoku = solvePossibilities(clone, search);
+
+        return solvedSudoku == null ? SolveResult.of(search.getStatus())
+                : new SolveResult(SolveStatus.SOLVED, solvedSudoku);
+    }
+
+    /**
+     * Solves the given {@link Sudoku}.
+     * Sudokus supported by the {@link BitmaskSolver} are solved by it,
+     * all other sudokus are solved using sets of possibilities.
+     *
+     * @param sudoku The sudoku to be solved.
+     *
+     * @return The solved sudoku, null, if the sudoku is not solvable.
+     */
+    private Sudoku findSolution(Sudoku sudoku) {
+        if(!BitmaskSolver.supports(sudoku))
+            return solvePossibilities(sudoku, new Search(SolveOptions.NONE));
+
+        BitmaskSolver solver = new BitmaskSolver(sudoku);
+
+        return solver.solve() == SolveStatus.SOLVED ? solver.writeSudoku(sudoku) : null;
+    }
+
+    /**
+     * Solves the given {@link Sudoku} by placing every value that is the only possibility of a {@link Field}
+     * and guessing if no such field is left.
+     *
+     * @param sudoku The sudoku to be solved.
+     * @param search The state of the search.
+     *
+     * @return The solved sudoku, null, if the sudoku is not solvable or the search was stopped.
+     */
+    private Sudoku solvePossibilities(Sudoku sudoku, Search search) {
+        int solvedFields;
+
+        do {
+            Set<Integer> unsolvedFields = getUnsolvedFields(sudoku);
+
+            if(unsolvedFields.size() == 0)
+                return sudoku;
+
+            solvedFields = 0;
+
+            for(int fieldIndex : unsolvedFields) {
+                Set<Integer> possibilities = getPossibilities(sudoku, fieldIndex);
+
+                if(possibilities.size() == 1) {
+                    if(!placeValue(sudoku, fieldIndex, possibilities.iterator().next()))
+                        return null;
+
+                    solvedFields++;
+                }
+            }
+        } while(solvedFields != 0);
+
+        return guess(sudoku, search);
     }
 
     /**
@@ -71,32 +190,94 @@ public class SolverManager {
      * @throws UnsupportedOperationException if the sudoku is not solvable
      */
     public Sudoku guessSolution(Sudoku sudoku) {
-        int x = -1, y = -1;
-        Set<Integer> possibilities = new HashSet<>();
+        Sudoku solvedSudoku = guess(sudoku, new Search(SolveOptions.NONE));
+
+        if(solvedSudoku == null)
+            throw new UnsupportedOperationException("Solving not possible.");
+
+        return solvedSudoku;
+    }
+
+    /**
+     * Tries every possibility of the {@link Field} with the least possibilities of a {@link Sudoku}
+     * and solves each resulting sudoku.
+     * Dead ends are signalled by returning null, so no exceptions are thrown for failed guesses.
+     * Once the search has been stopped, every level returns right away, so the clones are released while unwinding.
+     *
+     * @param sudoku The sudoku where the next move should be guessed.
+     * @param search The state of the search.
+     *
+     * @return The solved sudoku, null, if none of the guesses leads to a solution or the search was stopped.
+     */
+    private Sudoku guess(Sudoku sudoku, Search search) {
+        int guessedField = -1;
+        Set<Integer> possibilities = null;
 
         for(int fieldIndex : getUnsolvedFields(sudoku)) {
-            int i = fieldIndex % (width * boardWidth),
-                j = Math.floorDiv(fieldIndex, width * boardWidth);
-            Set<Integer> pos = getPossibilities(sudoku, i, j);
-
-            if(possibilities.isEmpty() || pos.size() < possibilities.size()) {
-                possibilities = new HashSet<>(pos);
-                x = i;
-                y = j;
+            Set<Integer> pos = getPossibilities(sudoku, fieldIndex);
+
+            if(possibilities == null || pos.size() < possibilities.size()) {
+                possibilities = pos;
+                guessedField = fieldIndex;
             }
         }
 
+        if(possibilities == null)
+            return sudoku;
+
         for(int possibility : possibilities) {
+            if(search.isStopped())
+                return null;
+
             Sudoku clone = sudoku.clone();
 
-            clone.setFieldValueAt(x, y, possibility);
+            if(!placeValue(clone, guessedField, possibility))
+                continue;
+
+            Sudoku solvedSudoku = solvePossibilities(clone, search);
+
+            if(solvedSudoku != null)
+                return solvedSudoku;
+        }
+
+        return null;
+    }
+
+    /**
+     * Places a value at a {@link Field} of a {@link Sudoku} and checks if every unsolved field
+     * sharing a row or the {@link Board} with it still has a possible value.
+     *
+     * @param sudoku     The sudoku of the concerned field.
+     * @param fieldIndex The index of the field.
+     * @param value      The value to be placed.
+     *
+     * @return false, if the placement left a field without possible values, true, if otherwise.
+     */
+    private boolean placeValue(Sudoku sudoku, int fieldIndex, int value) {
+        int[] peers = topology.getPeers();
+        int peerCount = topology.getPeerCount();
+
+        sudoku.setFieldValueAt(topology.getVerticalRowIndex(fieldIndex), topology.getHorizontalRowIndex(fieldIndex),
+                value);
 
-            try {
-                return solveSudoku(clone);
-            } catch(Exception ignored) {}
+        for(int i = fieldIndex * peerCount; i < (fieldIndex + 1) * peerCount; i++) {
+            if(!hasPossibilities(sudoku, peers[i]))
+                return false;
         }
 
-        throw new UnsupportedOperationException("Solving not possible.");
+        return true;
+    }
+
+    /**
+     * Checks if a {@link Field} of a {@link Sudoku} has a value or at least one possible value.
+     *
+     * @param sudoku     The sudoku of the concerned field.
+     * @param fieldIndex The index of the field.
+     *
+     * @return true, if the field has a value or a possible value, false, if otherwise.
+     */
+    private boolean hasPossibilities(Sudoku sudoku, int fieldIndex) {
+        return sudoku.getField(fieldIndex).hasValue() || !getPossibilities(sudoku, fieldIndex).isEmpty();
     }
 
     /**
@@ -111,11 +292,9 @@ public class SolverManager {
     private Set<Integer> getUnsolvedFields(Sudoku sudoku) {
         Set<Integer> unsolvedFields = new HashSet<>();
 
-        for(int y = 0; y < height * boardHeight; y++) {
-            for(int x = 0; x < width * boardWidth; x++) {
-                if(!sudoku.getFieldAt(x, y).hasValue())
-                    unsolvedFields.add(x + y * width * boardWidth);
-            }
+        for(int fieldIndex = 0; fieldIndex < topology.getFieldCount(); fieldIndex++) {
+            if(!sudoku.getField(fieldIndex).hasValue())
+                unsolvedFields.add(fieldIndex);
         }
 
         return unsolvedFields;
@@ -130,106 +309,112 @@ public class SolverManager {
      *
      * @return A set containing all possible values for a field of the sudoku.
      */
-    private Set<Integer> getPossibilities(Sudoku sudoku, int x, int y) {
-        Field field = sudoku.getFieldAt(x, y);
-
-        if(field.hasValue())
-            return Collections.singleton(field.getValue());
-
-        Set<Integer> possibilities = createPossibilitiesSet();
-
-        return getRowPossibilities(sudoku, getBoardPossibilities(sudoku, possibilities, x, y), x, y);
+    Set<Integer> getPossibilities(Sudoku sudoku, int x, int y) {
+        return getPossibilities(sudoku, topology.getFieldIndex(x, y));
     }
 
     /**
-     * Gets {@link Set} containing the possible values for a {@link Field} within a {@link Board} of a {@link Sudoku}.
+     * Gets a {@link Set} containing all possible values for a {@link Field} of a {@link Sudoku}.
      *
-     * @param sudoku        The sudoku of the concerned field.
-     * @param possibilities The possible values of a field.
-     * @param x             The coordinate of the field referring to the horizontal axis.
-     * @param y             The coordinate of the field referring to the vertical axis.
+     * @param sudoku     The sudoku of the concerned field.
+     * @param fieldIndex The index of the field.
      *
-     * @return A set containing the possible values for a field within a board of a sudoku.
+     * @return A set containing all possible values for a field of the sudoku.
      */
-    private Set<Integer> getBoardPossibilities(Sudoku sudoku, Set<Integer> possibilities, int x, int y) {
-        Board board = sudoku.getBoardAt(x, y);
+    private Set<Integer> getPossibilities(Sudoku sudoku, int fieldIndex) {
+        Field field = sudoku.getField(fieldIndex);
 
-        for(int i = 0; i < boardWidth * boardHeight; i++) {
-            Field field = board.getFields().get(i);
+        if(field.hasValue())
+            return Collections.singleton(field.getValue());
 
-            if(field.hasValue())
-                possibilities.remove(field.getValue());
-        }
+        Set<Integer> possibilities = createPossibilitiesSet();
+
+        removeUnitValues(sudoku, possibilities, topology.getBoardUnit(fieldIndex));
+        removeUnitValues(sudoku, possibilities, topology.getVerticalRowUnit(fieldIndex));
+        removeUnitValues(sudoku, possibilities, topology.getHorizontalRowUnit(fieldIndex));
 
         return possibilities;
     }
 
     /**
-     * Gets {@link Set} containing the possible values for a {@link Field} within both rows of a {@link Sudoku}.
+     * Removes the values of all {@link Field}s of a horizontal row, a vertical row or a {@link Board}
+     * of a {@link Sudoku} from the possible values of a field.
      *
      * @param sudoku        The sudoku of the concerned field.
      * @param possibilities The possible values of a field.
-     * @param x             The coordinate of the field referring to the horizontal axis.
-     * @param y             The coordinate of the field referring to the vertical axis.
-     *
-     * @return A set containing the possible values for a field within both rows of a sudoku.
+     * @param unit          The index of the unit as used by {@link Topology#getUnits()}.
      */
-    private Set<Integer> getRowPossibilities(Sudoku sudoku, Set<Integer> possibilities, int x, int y) {
-        return getHorizontalRowPossibilities(sudoku, getVerticalRowPossibilities(sudoku, possibilities, x), y);
-    }
+    private void removeUnitValues(Sudoku sudoku, Set<Integer> possibilities, int unit) {
+        int[] units = topology.getUnits();
 
-    /**
-     * Gets {@link Set} containing the possible values for a {@link Field} within the vertical row of a {@link Sudoku}.
-     *
-     * @param sudoku        The sudoku of the concerned field.
-     * @param possibilities The possible values of a field.
-     * @param x             The coordinate of the field referring to the horizontal axis.
-     *
-     * @return A set containing the possible values for a field within the vertical row of a sudoku.
-     */
-    private Set<Integer> getVerticalRowPossibilities(Sudoku sudoku, Set<Integer> possibilities, int x) {
-        for(int i = 0; i < height * boardHeight; i++) {
-            Field field = sudoku.getFieldAt(x, i);
+        for(int i = topology.getUnitStart(unit); i < topology.getUnitStart(unit + 1); i++) {
+            Field field = sudoku.getField(units[i]);
 
             if(field.hasValue())
                 possibilities.remove(field.getValue());
         }
-
-        return possibilities;
     }
 
     /**
-     * Gets {@link Set} containing the possible values for a {@link Field}
-     * within the horizontal row of a {@link Sudoku}.
-     *
-     * @param sudoku        The sudoku of the concerned field.
-     * @param possibilities The possible values of a field.
-     * @param y             The coordinate of the field referring to the vertical axis.
+     * Creates a {@link Set} containing all possible values for a field.
      *
-     * @return A set containing the possible values for a field within the horizontal row of a sudoku.
+     * @return A set containing all possible values for a field.
      */
-    private Set<Integer> getHorizontalRowPossibilities(Sudoku sudoku, Set<Integer> possibilities, int y) {
-        for(int i = 0; i < width * boardWidth; i++) {
-            Field field = sudoku.getFieldAt(i, y);
+    private Set<Integer> createPossibilitiesSet() {
+        Set<Integer> possibilities = new HashSet<>();
 
-            if(field.hasValue())
-                possibilities.remove(field.getValue());
-        }
+        for(int i = 1; i <= topology.getSize(); i++)
+            possibilities.add(i);
 
         return possibilities;
     }
 
     /**
-     * Creates a {@link Set} containing all possible values for a field.
-     *
-     * @return A set containing all possible values for a field.
+     * The state of a search using sets of possibilities, counting its guesses to check its {@link SolveOptions}.
      */
-    private Set<Integer> createPossibilitiesSet() {
-        Set<Integer> possibilities = new HashSet<>();
+    private static class Search {
+
+        /**
+         * The limits of the search.
+         */
+        private final SolveOptions options;
+
+        /**
+         * The amount of guesses made so far.
+         */
+        private long guesses;
+
+        /**
+         * The status the search was stopped with, null, if it has not been stopped.
+         */
+        private SolveStatus stopStatus;
+
+        /**
+         * @param options The limits of the search.
+         */
+        private Search(SolveOptions options) {
+            this.options = options;
+        }
 
-        for(int i = 1; i <= width * height; i++)
-            possibilities.add(i);
+        /**
+         * Counts a guess and checks the options before it is made.
+         *
+         * @return true, if the search has been stopped, false, if the guess may be made.
+         */
+        private boolean isStopped() {
+            if(stopStatus == null)
+                stopStatus = options.check(guesses++);
 
-        return possibilities;
+            return stopStatus != null;
+        }
+
+        /**
+         * Gets the status of a search that did not find a solution.
+         *
+         * @return The status the search was stopped with, {@link SolveStatus#UNSOLVABLE}, if it was not stopped.
+         */
+        private SolveStatus getStatus() {
+            return stopStatus != null ? stopStatus : SolveStatus.UNSOLVABLE;
+        }
     }
 }